@@ -0,0 +1,84 @@
+package com.blogplatform.simpleblogplatform.jmh;
+
+import com.blogplatform.simpleblogplatform.SimpleBlogPlatformApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The whole application, started once per benchmark fork and filled by DataSeeder (the
+ * "seed" profile) with "posts" posts, ten comments per post on average and 1000 users.
+ * The seed is fixed, so every machine benchmarks the same data.
+ */
+@State(Scope.Benchmark)
+public class BlogState {
+
+    static final int USERS = 1_000;
+
+    @Param({"1000", "10000"})
+    public int posts;
+
+    ConfigurableApplicationContext context;
+
+    // Seeded post IDs in a fixed shuffled order; benchmarks walk through them.
+    long[] postIds;
+    private int nextPost;
+    private int nextUser;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(SimpleBlogPlatformApplication.class)
+                .profiles("seed")
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=TRUE",
+                        "blog.seed.users=" + USERS,
+                        "blog.seed.posts=" + posts,
+                        "blog.seed.comments=" + posts * 10L)
+                .run();
+        List<Long> ids = bean(JdbcTemplate.class).queryForList("select id from post order by id", Long.class);
+        postIds = new long[ids.size()];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < postIds.length; i++) {
+            postIds[i] = ids.get(i);
+        }
+        for (int i = postIds.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long tmp = postIds[i];
+            postIds[i] = postIds[j];
+            postIds[j] = tmp;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /** The next post ID of the fixed sequence. */
+    long nextPostId() {
+        long id = postIds[nextPost];
+        nextPost = (nextPost + 1) % postIds.length;
+        return id;
+    }
+
+    /** The username of a seeded user, cycling through all of them. */
+    String nextUsername() {
+        nextUser = (nextUser + 1) % USERS;
+        return "user" + (nextUser + 1);
+    }
+}
@@ -0,0 +1,32 @@
+package com.blogplatform.simpleblogplatform.jmh;
+
+import com.blogplatform.simpleblogplatform.dto.CommentDto;
+import com.blogplatform.simpleblogplatform.service.CommentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving a comment synchronously: post and user lookups, the insert, the comment count
+ * update and the change event, in one transaction. Every invocation adds a row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentServiceBenchmarks {
+
+    @Benchmark
+    public void saveComment(BlogState blog) {
+        CommentDto comment = new CommentDto();
+        comment.setContent("A benchmark comment.");
+        blog.bean(CommentService.class).saveComment(blog.nextPostId(), blog.nextUsername(), comment);
+    }
+}
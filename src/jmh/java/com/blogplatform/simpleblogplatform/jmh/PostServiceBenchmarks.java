@@ -0,0 +1,43 @@
+package com.blogplatform.simpleblogplatform.jmh;
+
+import com.blogplatform.simpleblogplatform.dto.PostFeedPage;
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Post lookups through PostService, including the second-level cache and transactions.
+ * findAllPosts loads every post and is expected to grow with the data size; the feed page
+ * and the single-post lookup should not.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostServiceBenchmarks {
+
+    @Benchmark
+    public List<Post> findAllPosts(BlogState blog) {
+        return blog.bean(PostService.class).findAllPosts();
+    }
+
+    @Benchmark
+    public PostFeedPage findFeedPage(BlogState blog) {
+        return blog.bean(PostService.class).findFeedPage(null, null);
+    }
+
+    @Benchmark
+    public Post findPostById(BlogState blog) {
+        return blog.bean(PostService.class).findPostById(blog.nextPostId());
+    }
+}
@@ -0,0 +1,125 @@
+package com.blogplatform.simpleblogplatform.jmh;
+
+import com.blogplatform.simpleblogplatform.cache.PostFragmentCache;
+import com.blogplatform.simpleblogplatform.cache.PostFragmentRenderer;
+import com.blogplatform.simpleblogplatform.dto.CommentDto;
+import com.blogplatform.simpleblogplatform.dto.PostFeedPage;
+import com.blogplatform.simpleblogplatform.model.Comment;
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.service.CommentService;
+import com.blogplatform.simpleblogplatform.service.PostService;
+import jakarta.servlet.ServletContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thymeleaf rendering only: the models are built once from the seeded data, so the
+ * numbers contain no database access. The post used is the one with the most comments,
+ * so its comment page is full.
+ *
+ * - home: the home feed page (home.html).
+ * - postDetail: the post page around already rendered fragments (post-detail.html), which
+ *   is what every request does on a fragment cache hit.
+ * - postFragments: rendering the article and comment-list fragments, which happens on a
+ *   fragment cache miss.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateRenderingBenchmarks {
+
+    @State(Scope.Thread)
+    public static class Pages {
+        ServletContext servletContext;
+        WebApplicationContext context;
+        ITemplateEngine templateEngine;
+        View home;
+        View postDetail;
+        Map<String, Object> homeModel;
+        Map<String, Object> postDetailModel;
+        Map<String, Object> fragmentModel;
+
+        @Setup(Level.Trial)
+        public void prepare(BlogState blog) throws Exception {
+            context = (WebApplicationContext) blog.context;
+            servletContext = context.getServletContext();
+            templateEngine = blog.bean(ITemplateEngine.class);
+            ViewResolver viewResolver = blog.context.getBean("thymeleafViewResolver", ViewResolver.class);
+            home = viewResolver.resolveViewName("home", Locale.US);
+            postDetail = viewResolver.resolveViewName("post-detail", Locale.US);
+
+            PostFeedPage feed = blog.bean(PostService.class).findFeedPage(null, null);
+            homeModel = Map.of("feed", feed, "posts", feed.posts());
+
+            Long postId = blog.bean(JdbcTemplate.class).queryForObject(
+                    "select id from post order by comment_count desc, id limit 1", Long.class);
+            PostFragmentCache.Fragments fragments = blog.bean(PostFragmentRenderer.class)
+                    .render(postId, 0, request(), new MockHttpServletResponse());
+            postDetailModel = Map.of("fragments", fragments, "postId", postId, "newComment", new CommentDto());
+
+            Post post = blog.bean(PostService.class).findPostById(postId);
+            Page<Comment> comments = blog.bean(CommentService.class).findCommentPage(postId, 0);
+            fragmentModel = Map.of("post", post, "comments", comments);
+        }
+
+        MockHttpServletRequest request() {
+            MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+            request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+            return request;
+        }
+    }
+
+    @Benchmark
+    public String home(Pages pages) throws Exception {
+        return render(pages, pages.home, pages.homeModel);
+    }
+
+    @Benchmark
+    public String postDetail(Pages pages) throws Exception {
+        return render(pages, pages.postDetail, pages.postDetailModel);
+    }
+
+    @Benchmark
+    public String postFragments(Pages pages) {
+        MockHttpServletRequest request = pages.request();
+        WebContext context = new WebContext(
+                JakartaServletWebApplication.buildApplication(pages.servletContext)
+                        .buildExchange(request, new MockHttpServletResponse()),
+                Locale.US, pages.fragmentModel);
+        return pages.templateEngine.process("fragments/post-fragments", Set.of("article"), context)
+                + pages.templateEngine.process("fragments/post-fragments", Set.of("comments"), context);
+    }
+
+    private static String render(Pages pages, View view, Map<String, Object> model) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        view.render(model, pages.request(), response);
+        return response.getContentAsString();
+    }
+}
@@ -0,0 +1,30 @@
+package com.blogplatform.simpleblogplatform.jmh;
+
+import com.blogplatform.simpleblogplatform.service.CustomUserDetailsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a user for authentication, cycling through all seeded users. After the first
+ * round the user cache answers, which is the common case for repeat logins.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDetailsBenchmarks {
+
+    @Benchmark
+    public UserDetails loadUserByUsername(BlogState blog) {
+        return blog.bean(CustomUserDetailsService.class).loadUserByUsername(blog.nextUsername());
+    }
+}
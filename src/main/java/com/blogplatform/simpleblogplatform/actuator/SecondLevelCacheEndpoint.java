@@ -0,0 +1,87 @@
+package com.blogplatform.simpleblogplatform.actuator;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Actuator endpoint exposing Hibernate second-level cache statistics at /actuator/l2cache.
+ * For every cache region it reports hits, misses, puts and the hit ratio (from Hibernate's
+ * statistics), plus the evictions and expirations performed by the cache provider
+ * (from the JCache statistics MBeans that Ehcache registers).
+ */
+@Component
+@Endpoint(id = "l2cache")
+public class SecondLevelCacheEndpoint {
+
+    private final Statistics statistics;
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public SecondLevelCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> cacheStatistics() {
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            long hits = region.getHitCount();
+            long misses = region.getMissCount();
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("hits", hits);
+            stats.put("misses", misses);
+            stats.put("puts", region.getPutCount());
+            stats.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+            stats.put("evictions", providerStatistic(regionName, "CacheEvictions"));
+            stats.put("removals", providerStatistic(regionName, "CacheRemovals"));
+            regions.put(regionName, stats);
+        }
+
+        Map<String, Object> naturalIds = new LinkedHashMap<>();
+        naturalIds.put("hits", statistics.getNaturalIdCacheHitCount());
+        naturalIds.put("misses", statistics.getNaturalIdCacheMissCount());
+        naturalIds.put("puts", statistics.getNaturalIdCachePutCount());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("regions", regions);
+        result.put("naturalIds", naturalIds);
+        return result;
+    }
+
+    /**
+     * Reads one attribute of the JCache CacheStatisticsMXBean for the given cache.
+     * Returns -1 when the MBean is not registered (e.g. statistics disabled in ehcache.xml).
+     */
+    private long providerStatistic(String cacheName, String attribute) {
+        try {
+            ObjectName pattern = new ObjectName("javax.cache:type=CacheStatistics,Cache="
+                    + ObjectName.quote(cacheName) + ",*");
+            Set<ObjectName> names = mBeanServer.queryNames(pattern, null);
+            if (names.isEmpty()) {
+                // Ehcache registers cache names unquoted when they contain no special characters.
+                names = mBeanServer.queryNames(
+                        new ObjectName("javax.cache:type=CacheStatistics,Cache=" + cacheName + ",*"), null);
+            }
+            long total = 0;
+            for (ObjectName name : names) {
+                total += ((Number) mBeanServer.getAttribute(name, attribute)).longValue();
+            }
+            return names.isEmpty() ? -1 : total;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.blogplatform.simpleblogplatform.cache;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * The least-recently-used map behind the in-memory caches of this package, bounded by the
+ * estimated size of its entries in bytes rather than by their number.
+ *
+ * Not thread-safe: each cache guards its map with its own monitor, together with whatever
+ * other state (such as post versions) has to change atomically with it.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+final class ByteBoundedLru<K, V> {
+
+    private final long maxBytes;
+    private final ToLongBiFunction<K, V> sizer;
+    private final Counter evictions;
+
+    // Access-ordered LinkedHashMap gives us LRU iteration order.
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long currentBytes;
+
+    /**
+     * @param maxBytes  The byte budget of all entries together.
+     * @param sizer     Estimates the heap size of one entry, key included.
+     * @param evictions Counts entries evicted to stay within the budget.
+     */
+    ByteBoundedLru(long maxBytes, ToLongBiFunction<K, V> sizer, Counter evictions) {
+        this.maxBytes = maxBytes;
+        this.sizer = sizer;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Returns the value for a key, marking it as most recently used, or null if absent.
+     */
+    V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stores a value, then evicts least recently used entries until the map fits within
+     * its byte budget. A value larger than the whole budget is not stored.
+     */
+    void put(K key, V value) {
+        long size = sizer.applyAsLong(key, value);
+        if (size > maxBytes) {
+            return;
+        }
+        V previous = entries.put(key, value);
+        if (previous != null) {
+            currentBytes -= sizer.applyAsLong(key, previous);
+        }
+        currentBytes += size;
+
+        Iterator<Map.Entry<K, V>> eldest = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<K, V> entry = eldest.next();
+            currentBytes -= sizer.applyAsLong(entry.getKey(), entry.getValue());
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Removes every entry matching the filter. Removals are not counted as evictions.
+     */
+    void removeIf(BiPredicate<K, V> filter) {
+        Iterator<Map.Entry<K, V>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, V> entry = it.next();
+            if (filter.test(entry.getKey(), entry.getValue())) {
+                currentBytes -= sizer.applyAsLong(entry.getKey(), entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    long currentBytes() {
+        return currentBytes;
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
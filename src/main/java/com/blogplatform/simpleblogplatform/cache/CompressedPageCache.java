@@ -0,0 +1,129 @@
+package com.blogplatform.simpleblogplatform.cache;
+
+import com.blogplatform.simpleblogplatform.event.PostChangedEvent;
+import com.blogplatform.simpleblogplatform.event.PostsImportedEvent;
+import com.blogplatform.simpleblogplatform.event.PostsRenderedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+
+/**
+ * An in-memory, byte-bounded LRU cache of gzip-compressed pages, filled and used by
+ * {@link PageCompressionFilter}.
+ *
+ * Entries are keyed by the page's path and parameters and its entity tag, which the controllers derive
+ * from the data shown on the page. A changed page gets a new tag, so an entry can never
+ * be served for a newer version of the page; invalidation on post changes only frees the
+ * memory of versions that will not be asked for again.
+ *
+ * Metrics: blog.compression.cache.requests (tagged result=hit|miss),
+ * blog.compression.cache.evictions, blog.compression.cache.bytes and
+ * blog.compression.cache.entries.
+ */
+@Component
+public class CompressedPageCache {
+
+    /**
+     * Identifies one version of a page.
+     *
+     * @param postId The post shown on the page, or null for pages of the home feed.
+     * @param uri    The request path and the query parameters the page reads.
+     * @param etag   The page's entity tag.
+     */
+    public record Key(Long postId, String uri, String etag) {
+
+        // Strings are stored as UTF-16 in the worst case; 96 bytes covers the object headers.
+        long estimatedBytes(byte[] body) {
+            return 96L + 2L * (uri.length() + etag.length()) + body.length;
+        }
+    }
+
+    // All access is guarded by "this".
+    private final ByteBoundedLru<Key, byte[]> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public CompressedPageCache(MeterRegistry meterRegistry,
+                               @Value("${blog.compression.cache.max-bytes:16777216}") long maxBytes) {
+        this.hits = Counter.builder("blog.compression.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("blog.compression.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.entries = new ByteBoundedLru<>(maxBytes, Key::estimatedBytes,
+                Counter.builder("blog.compression.cache.evictions").register(meterRegistry));
+        Gauge.builder("blog.compression.cache.bytes", this, CompressedPageCache::currentBytes)
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("blog.compression.cache.entries", this, CompressedPageCache::size).register(meterRegistry);
+    }
+
+    /**
+     * Looks up the compressed body of a page version.
+     *
+     * @return The gzip-compressed body, or null on a cache miss.
+     */
+    public byte[] get(Key key) {
+        byte[] body;
+        synchronized (this) {
+            body = entries.get(key);
+        }
+        (body != null ? hits : misses).increment();
+        return body;
+    }
+
+    /**
+     * Stores the compressed body of a page version. Least recently used entries are
+     * evicted until the cache fits within its byte budget.
+     */
+    public synchronized void put(Key key, byte[] body) {
+        entries.put(key, body);
+    }
+
+    /**
+     * Drops every cached version of a post's pages, and of the home feed pages, which
+     * show the post's title, excerpt and comment count. With a null postId, only the
+     * home feed pages are dropped.
+     */
+    public synchronized void invalidate(Long postId) {
+        entries.removeIf((key, body) -> key.postId() == null || Objects.equals(key.postId(), postId));
+    }
+
+    /**
+     * Invalidates a post's pages once a change to it (including a new or deleted comment)
+     * has been committed. fallbackExecution covers changes made outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        invalidate(event.postId());
+    }
+
+    /**
+     * Drops the home feed pages after a bulk import, which adds posts to the feed
+     * without a PostChangedEvent per post.
+     */
+    @EventListener(PostsImportedEvent.class)
+    public void onPostsImported() {
+        invalidate(null);
+    }
+
+    /**
+     * Drops every page after posts were re-rendered; their pages have new entity tags,
+     * so the old versions would only take up memory.
+     */
+    @EventListener(PostsRenderedEvent.class)
+    public synchronized void onPostsRendered() {
+        entries.removeIf((key, body) -> true);
+    }
+
+    public synchronized long currentBytes() {
+        return entries.currentBytes();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
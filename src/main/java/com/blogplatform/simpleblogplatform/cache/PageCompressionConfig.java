@@ -0,0 +1,29 @@
+package com.blogplatform.simpleblogplatform.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Installs {@link PageCompressionFilter} in the mode chosen with "blog.compression.mode"
+ * (cached, dynamic or off).
+ */
+@Configuration
+public class PageCompressionConfig {
+
+    @Bean
+    public FilterRegistrationBean<PageCompressionFilter> pageCompressionFilter(
+            CompressedPageCache cache, MeterRegistry meterRegistry,
+            @Value("${blog.compression.mode:cached}") String mode,
+            @Value("${blog.compression.min-bytes:1024}") int minBytes) {
+        FilterRegistrationBean<PageCompressionFilter> registration = new FilterRegistrationBean<>(
+                new PageCompressionFilter("dynamic".equalsIgnoreCase(mode) ? null : cache, meterRegistry, minBytes));
+        registration.setEnabled(!"off".equalsIgnoreCase(mode));
+        // Behind Spring Security, so that logged-in users can be told apart.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
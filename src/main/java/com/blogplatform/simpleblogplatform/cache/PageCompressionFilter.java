@@ -0,0 +1,220 @@
+package com.blogplatform.simpleblogplatform.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sends the anonymous home feed and post detail pages gzip-compressed to clients that
+ * accept it, in one of two modes (property "blog.compression.mode"; "off" does not
+ * install the filter at all):
+ *
+ * - cached (default): each version of a page, identified by its path, the query
+ *   parameters the page reads and its entity tag, is compressed once, at the highest
+ *   level, and kept in {@link CompressedPageCache}. Every later request for the same
+ *   version sends the stored bytes. Other query parameters (tracking tags, cache
+ *   busters) do not change the page, so they are left out of the key; otherwise every
+ *   "/?x=1", "/?x=2", ... would be compressed and stored again.
+ * - dynamic: every response is compressed again at the default level, as a servlet
+ *   container's own compression would do. Mostly useful as a baseline.
+ *
+ * Pages of logged-in users carry a per-session CSRF token, so they are passed through
+ * unchanged, as are responses without an entity tag (in cached mode) or smaller than
+ * "blog.compression.min-bytes". The page is still rendered on every request: the
+ * controllers need it to compute the entity tag, and the post page's fragments come
+ * from their own cache anyway.
+ *
+ * A compressed response carries the page's entity tag as a weak tag (W/"..."), because
+ * its bytes differ from the uncompressed page. Conditional requests compare entity
+ * tags weakly, so a client's W/"..." still matches and gets a 304.
+ *
+ * Metrics: blog.compression.saved (bytes not sent thanks to compression) and
+ * blog.compression.time (time spent compressing, on cache misses and in dynamic mode).
+ */
+public class PageCompressionFilter extends OncePerRequestFilter {
+
+    private static final Pattern POST_PAGE = Pattern.compile("/posts/(\\d{1,18})");
+
+    // The query parameters read by PostController for each page.
+    private static final List<String> FEED_PARAMETERS = List.of("before", "after");
+    private static final List<String> POST_PARAMETERS = List.of("commentPage");
+
+    private final CompressedPageCache cache;
+    private final int minBytes;
+    private final Counter saved;
+    private final Timer compressionTime;
+
+    /**
+     * @param cache    The cache of compressed pages, or null to compress every response (dynamic mode).
+     * @param minBytes Responses smaller than this are sent uncompressed.
+     */
+    public PageCompressionFilter(CompressedPageCache cache, MeterRegistry meterRegistry, int minBytes) {
+        this.cache = cache;
+        this.minBytes = minBytes;
+        this.saved = Counter.builder("blog.compression.saved").baseUnit("bytes").register(meterRegistry);
+        this.compressionTime = Timer.builder("blog.compression.time").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = pathOf(request);
+        return !"GET".equals(request.getMethod()) || !("/".equals(path) || POST_PAGE.matcher(path).matches());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (request.getUserPrincipal() != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        // Shared caches must keep the compressed and the uncompressed page apart.
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, buffered);
+        } catch (IOException | ServletException | RuntimeException e) {
+            buffered.copyBodyToResponse();
+            throw e;
+        }
+
+        String etag = buffered.getHeader(HttpHeaders.ETAG);
+        if (buffered.getStatus() == HttpServletResponse.SC_NOT_MODIFIED && etag != null) {
+            // The client's copy is the compressed page.
+            response.setHeader(HttpHeaders.ETAG, weak(etag));
+        }
+        if (buffered.getStatus() != HttpServletResponse.SC_OK || buffered.getContentSize() < minBytes
+                || response.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            buffered.copyBodyToResponse();
+            return;
+        }
+
+        byte[] page = buffered.getContentAsByteArray();
+        byte[] compressed;
+        // A response that sets a cookie is specific to this visitor.
+        if (cache != null && etag != null && !response.containsHeader(HttpHeaders.SET_COOKIE)) {
+            CompressedPageCache.Key key = new CompressedPageCache.Key(postIdOf(request), pageOf(request), etag);
+            compressed = cache.get(key);
+            if (compressed == null) {
+                compressed = compressionTime.record(() -> gzip(page, Deflater.BEST_COMPRESSION));
+                cache.put(key, compressed);
+            }
+        } else if (cache == null) {
+            compressed = compressionTime.record(() -> gzip(page, Deflater.DEFAULT_COMPRESSION));
+        } else {
+            buffered.copyBodyToResponse();
+            return;
+        }
+        saved.increment(page.length - compressed.length);
+
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, weak(etag));
+        }
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.setContentLength(compressed.length);
+        response.getOutputStream().write(compressed);
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: listed with a non-zero quality, or
+     * covered by "*" without being listed.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase();
+            boolean acceptable = quality(parts) > 0;
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                return acceptable;
+            }
+            if (name.equals("*")) {
+                wildcard = acceptable;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String weak(String etag) {
+        return etag.startsWith("W/") ? etag : "W/" + etag;
+    }
+
+    private static byte[] gzip(byte[] page, int level) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(page.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(page);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * The request path plus the query parameters the page reads, in a fixed order.
+     * Parameters given more than once are joined with commas, as Spring binds them.
+     */
+    static String pageOf(HttpServletRequest request) {
+        String path = pathOf(request);
+        StringBuilder page = new StringBuilder(path);
+        char separator = '?';
+        for (String name : "/".equals(path) ? FEED_PARAMETERS : POST_PARAMETERS) {
+            String[] values = request.getParameterValues(name);
+            if (values != null) {
+                page.append(separator).append(name).append('=').append(String.join(",", values));
+                separator = '&';
+            }
+        }
+        return page.toString();
+    }
+
+    private static Long postIdOf(HttpServletRequest request) {
+        Matcher matcher = POST_PAGE.matcher(pathOf(request));
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+    }
+}
@@ -0,0 +1,177 @@
+package com.blogplatform.simpleblogplatform.cache;
+
+import com.blogplatform.simpleblogplatform.event.PostChangedEvent;
+import com.blogplatform.simpleblogplatform.event.PostsRenderedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory, byte-bounded LRU cache of the rendered HTML fragments of post detail pages
+ * (the article and one page of its comment list).
+ *
+ * Every post has a version number that is bumped whenever the post or its comments change,
+ * and entries are keyed by (post id, version, comment page). A page rendered from data read
+ * before a change therefore can never be stored under the new version, even if the render
+ * finishes after the invalidation.
+ *
+ * Versions come from one global counter. Only posts changed since startup have a version of
+ * their own; every other post (and any ID that does not exist) shares the "floor" version,
+ * so looking up a page never adds anything to the version map. Deleting a post removes its
+ * version and raises the floor past every version handed out so far, which also keeps a
+ * render that started before the delete from being stored. The map is therefore bounded by
+ * the number of live posts; raising the floor only costs the unchanged posts one miss each.
+ *
+ * Metrics: blog.page.cache.requests (tagged result=hit|miss), blog.page.cache.evictions,
+ * blog.page.cache.bytes, blog.page.cache.entries and blog.page.cache.versions.
+ */
+@Component
+public class PostFragmentCache {
+
+    /**
+     * The cached fragments for one page of a post.
+     *
+     * @param title        The post title, used for the page's title element.
+     * @param articleHtml  The rendered article fragment.
+     * @param commentsHtml The rendered comment-list fragment.
+     */
+    public record Fragments(String title, String articleHtml, String commentsHtml) {
+
+        // Strings are stored as UTF-16 in the worst case; 64 bytes covers the object headers.
+        long estimatedBytes() {
+            return 64L + 2L * (length(title) + length(articleHtml) + length(commentsHtml));
+        }
+
+        private static int length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+
+    private record Key(long postId, long version, int commentPage) {
+    }
+
+    // All access is guarded by "this".
+    private final ByteBoundedLru<Key, Fragments> entries;
+
+    // Written only while holding "this"; read without it.
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private long lastVersion; // guarded by "this"
+    private volatile long floorVersion;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PostFragmentCache(MeterRegistry meterRegistry,
+                             @Value("${blog.page-cache.max-bytes:33554432}") long maxBytes) {
+        this.hits = Counter.builder("blog.page.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("blog.page.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.entries = new ByteBoundedLru<>(maxBytes, (key, fragments) -> fragments.estimatedBytes(),
+                Counter.builder("blog.page.cache.evictions").register(meterRegistry));
+        Gauge.builder("blog.page.cache.bytes", this, PostFragmentCache::currentBytes)
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("blog.page.cache.entries", this, PostFragmentCache::size).register(meterRegistry);
+        Gauge.builder("blog.page.cache.versions", versions, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Returns the current version of a post. Callers read it before loading the data
+     * they are going to render, and pass it back to {@link #put}.
+     */
+    public long version(Long postId) {
+        return versions.getOrDefault(postId, floorVersion);
+    }
+
+    /**
+     * Looks up the cached fragments for the current version of a post.
+     *
+     * @return The fragments, or null on a cache miss.
+     */
+    public Fragments get(Long postId, int commentPage) {
+        Key key = new Key(postId, version(postId), commentPage);
+        Fragments fragments;
+        synchronized (this) {
+            fragments = entries.get(key);
+        }
+        (fragments != null ? hits : misses).increment();
+        return fragments;
+    }
+
+    /**
+     * Stores rendered fragments, unless the post has changed since {@code version} was read.
+     * Least recently used entries are evicted until the cache fits within its byte budget.
+     */
+    public synchronized void put(Long postId, long version, int commentPage, Fragments fragments) {
+        if (version != version(postId)) {
+            return; // Rendered from stale data.
+        }
+        entries.put(new Key(postId, version, commentPage), fragments);
+    }
+
+    /**
+     * Drops every cached page of a post and moves it to a new version.
+     */
+    public synchronized void invalidate(Long postId) {
+        versions.put(postId, ++lastVersion);
+        removeEntries(postId);
+    }
+
+    /**
+     * Drops every cached page of a deleted post and forgets its version.
+     */
+    public synchronized void remove(Long postId) {
+        versions.remove(postId);
+        // Resetting the post to the old floor could let a render that started before the
+        // delete store its page under a "current" version, so the floor moves on instead.
+        floorVersion = ++lastVersion;
+        removeEntries(postId);
+    }
+
+    /**
+     * Drops every cached page and moves every post to a new version.
+     */
+    public synchronized void invalidateAll() {
+        versions.clear();
+        floorVersion = ++lastVersion;
+        entries.removeIf((key, fragments) -> true);
+    }
+
+    private void removeEntries(long postId) {
+        entries.removeIf((key, fragments) -> key.postId() == postId);
+    }
+
+    /**
+     * Invalidates a post's pages once a change to it has been committed.
+     * fallbackExecution covers changes made outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.change() == PostChangedEvent.Change.DELETED) {
+            remove(event.postId());
+        } else {
+            invalidate(event.postId());
+        }
+    }
+
+    /**
+     * Invalidates every page once posts have been re-rendered in bulk.
+     */
+    @EventListener(PostsRenderedEvent.class)
+    public void onPostsRendered() {
+        invalidateAll();
+    }
+
+    public synchronized long currentBytes() {
+        return entries.currentBytes();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,83 @@
+package com.blogplatform.simpleblogplatform.cache;
+
+import com.blogplatform.simpleblogplatform.model.Comment;
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.monitoring.RequestStatistics;
+import com.blogplatform.simpleblogplatform.service.CommentService;
+import com.blogplatform.simpleblogplatform.service.PostService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Produces the visitor-independent fragments of the post detail page, serving them from
+ * {@link PostFragmentCache} when possible. On a cache hit no database access and no
+ * template processing happens at all.
+ */
+@Component
+public class PostFragmentRenderer {
+
+    private static final String TEMPLATE = "fragments/post-fragments";
+
+    private final PostFragmentCache cache;
+    private final PostService postService;
+    private final CommentService commentService;
+    private final ITemplateEngine templateEngine;
+
+    public PostFragmentRenderer(PostFragmentCache cache, PostService postService,
+                                CommentService commentService, ITemplateEngine templateEngine) {
+        this.cache = cache;
+        this.postService = postService;
+        this.commentService = commentService;
+        this.templateEngine = templateEngine;
+    }
+
+    /**
+     * Returns the rendered article and comment-list fragments for one page of a post.
+     *
+     * @param postId      The ID of the post.
+     * @param commentPage The zero-based page of comments.
+     * @param request     The current request, needed to build links in the fragments.
+     * @param response    The current response.
+     * @return The rendered fragments.
+     */
+    public PostFragmentCache.Fragments render(Long postId, int commentPage,
+                                              HttpServletRequest request, HttpServletResponse response) {
+        int page = Math.max(0, commentPage);
+        PostFragmentCache.Fragments cached = cache.get(postId, page);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Read the version before loading any data, so that a change committed while
+        // we render makes cache.put() discard this (possibly stale) result.
+        long version = cache.version(postId);
+        Post post = postService.findPostById(postId);
+        Page<Comment> comments = commentService.findCommentPage(postId, page);
+
+        WebContext context = new WebContext(
+                JakartaServletWebApplication.buildApplication(request.getServletContext())
+                        .buildExchange(request, response),
+                RequestContextUtils.getLocale(request),
+                Map.of("post", post, "comments", comments));
+
+        // The fragments are rendered inside the controller, before the page's own view,
+        // so their rendering time is reported to the request statistics here.
+        long start = System.nanoTime();
+        PostFragmentCache.Fragments fragments = new PostFragmentCache.Fragments(
+                post.getTitle(),
+                templateEngine.process(TEMPLATE, Set.of("article"), context),
+                templateEngine.process(TEMPLATE, Set.of("comments"), context));
+        RequestStatistics.recordRender(System.nanoTime() - start);
+        cache.put(postId, version, page, fragments);
+        return fragments;
+    }
+}
@@ -0,0 +1,114 @@
+package com.blogplatform.simpleblogplatform.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A DataSource wrapper that lets at most a fixed number of threads hold a connection at a
+ * time. Every other caller waits in a fair (first come, first served) queue for at most
+ * the configured time, then fails with a SQLTransientConnectionException.
+ *
+ * With virtual threads there is no worker pool limiting how many requests run at once,
+ * so thousands of them can reach the database layer together. This gate keeps them in an
+ * orderly queue in front of the connection pool, fails them after a short, predictable
+ * wait instead of the pool's long connection timeout, and makes the queue length visible
+ * as a metric.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+
+    public ConcurrencyLimitingDataSource(DataSource target, int maxConcurrency, long maxWaitMillis) {
+        super(target);
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "No database connection became available within " + maxWaitMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    /**
+     * Wraps the connection so that closing it (returning it to the pool) gives the permit
+     * back exactly once.
+     */
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            if (released.compareAndSet(false, true)) {
+                                try {
+                                    connection.close();
+                                } finally {
+                                    permits.release();
+                                }
+                            }
+                            return null;
+                        default:
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                    }
+                });
+    }
+
+    /** The number of threads currently waiting for a connection. */
+    public int getWaitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    /** The number of connections currently handed out through this gate. */
+    public int getActiveConnections() {
+        return maxConcurrency - permits.availablePermits();
+    }
+}
@@ -3,6 +3,7 @@ package com.blogplatform.simpleblogplatform.config;
 import com.blogplatform.simpleblogplatform.model.User;
 import com.blogplatform.simpleblogplatform.repository.UserRepository;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -12,6 +13,8 @@ import org.springframework.stereotype.Component;
  * exists in the database.
  */
 @Component
+// Runs before the other startup runners (such as DataSeeder), so the admin is always user 1.
+@Order(0)
 public class DataInitializer implements CommandLineRunner {
 
     // Inject the UserRepository and PasswordEncoder to interact with user data
@@ -0,0 +1,399 @@
+package com.blogplatform.simpleblogplatform.config;
+
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.render.PostContentRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Fills an empty database with synthetic users, posts and comments for performance
+ * testing. Active only with the "seed" profile:
+ * java -jar app.jar --spring.profiles.active=seed --blog.seed.posts=100000
+ *
+ * The data is shaped like a real blog rather than like a loop of identical rows:
+ * - Post bodies follow a log-normal length distribution: most are a few hundred words,
+ *   a long tail runs to several thousand.
+ * - Comments are spread over the posts with a Zipf distribution, so a handful of hot
+ *   posts collect a large share of them and most posts get few or none. The hot posts
+ *   are scattered over the whole timeline. View counts follow the comment counts.
+ * - Authors are Zipf-distributed too: a few users write most of the posts.
+ *
+ * Every value is derived from "blog.seed.random-seed" and the position of the row, never
+ * from the order in which threads happen to run, and IDs are assigned explicitly. The same
+ * settings therefore produce exactly the same database on every machine and with any number
+ * of threads, so "post 42" means the same page in every benchmark.
+ *
+ * Rows are generated and inserted in parallel, one JDBC batch and transaction per chunk of
+ * posts. Seeding is skipped if the database already contains posts. All seeded users
+ * ("user1", "user2", ...) share the password from "blog.seed.password", hashed once.
+ */
+@Component
+@Profile("seed")
+// After DataInitializer, so the admin user keeps its usual ID.
+@Order(1)
+public class DataSeeder implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSeeder.class);
+
+    // Posts are spread evenly over one year from this instant, oldest first.
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final Duration TIMELINE = Duration.ofDays(365);
+
+    // Log-normal parameters of the number of words in a post body (median about 450 words)
+    // and in a comment (median about 18 words).
+    private static final double POST_WORDS_MU = Math.log(450);
+    private static final double POST_WORDS_SIGMA = 0.8;
+    private static final double COMMENT_WORDS_MU = Math.log(18);
+    private static final double COMMENT_WORDS_SIGMA = 0.7;
+
+    // The comment column holds 255 characters.
+    private static final int MAX_COMMENT_LENGTH = 255;
+
+    // Independent random streams, so changing e.g. the comment count does not change the posts.
+    private static final long USERS_STREAM = 1;
+    private static final long POSTS_STREAM = 2;
+    private static final long COMMENT_COUNTS_STREAM = 3;
+    private static final long COMMENTS_STREAM = 4;
+    private static final long HOT_POSTS_STREAM = 5;
+
+    private static final String[] WORDS = (
+            "the of and to in is that it for on with as was at by this be are from or have an " +
+            "they which one you had not but what all were when we there can been has more if " +
+            "will so no would time about how up out them then she many some these could other " +
+            "into two like him see its only new first way people may over after also did most " +
+            "java spring database query index cache latency throughput request response thread " +
+            "memory heap garbage collector pool connection transaction commit rollback schema " +
+            "server client browser network packet socket stream buffer batch cursor page feed " +
+            "comment post author reader editor draft review release version build deploy test " +
+            "benchmark profile metric trace log error warning failure retry timeout backoff " +
+            "queue worker scheduler lock mutex atomic volatile barrier latch semaphore future " +
+            "design pattern interface class method field record module package library framework " +
+            "simple complex fast slow small large hot cold warm stale fresh lazy eager strict " +
+            "because however therefore although whereas meanwhile instead finally indeed often " +
+            "measure compare improve reduce avoid prefer choose explain describe show write read")
+            .split(" ");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final PostContentRenderer contentRenderer;
+
+    private final int users;
+    private final int posts;
+    private final int comments;
+    private final double commentSkew;
+    private final double authorSkew;
+    private final long randomSeed;
+    private final int threads;
+    private final int batchSize;
+    private final String password;
+
+    public DataSeeder(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                      PasswordEncoder passwordEncoder, PostContentRenderer contentRenderer,
+                      @Value("${blog.seed.users:1000}") int users,
+                      @Value("${blog.seed.posts:10000}") int posts,
+                      @Value("${blog.seed.comments:100000}") int comments,
+                      @Value("${blog.seed.comment-skew:1.1}") double commentSkew,
+                      @Value("${blog.seed.author-skew:1.0}") double authorSkew,
+                      @Value("${blog.seed.random-seed:42}") long randomSeed,
+                      @Value("${blog.seed.threads:0}") int threads,
+                      @Value("${blog.seed.batch-size:500}") int batchSize,
+                      @Value("${blog.seed.password:password}") String password) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.contentRenderer = contentRenderer;
+        this.users = Math.max(1, users);
+        this.posts = Math.max(0, posts);
+        this.comments = Math.max(0, comments);
+        this.commentSkew = commentSkew;
+        this.authorSkew = authorSkew;
+        this.randomSeed = randomSeed;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.batchSize = Math.max(1, batchSize);
+        this.password = password;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Long existing = jdbcTemplate.queryForObject("select count(*) from post", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Database already contains {} posts; not seeding", existing);
+            return;
+        }
+        seed();
+    }
+
+    /**
+     * Generates and inserts the configured users, posts and comments.
+     */
+    public void seed() throws Exception {
+        long start = System.nanoTime();
+        long firstUserId = nextId("users");
+        long firstPostId = nextId("post");
+        long firstCommentId = nextId("comment");
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // Step 1: Users. One hash for all of them; hashing each would take minutes.
+            String passwordHash = passwordEncoder.encode(password);
+            inParallel(executor, chunks(users), chunk -> insertUsers(chunk, firstUserId, passwordHash));
+
+            // Step 2: How many comments each post gets, by drawing every comment's post
+            // from the Zipf distribution. The counts are needed up front for the posts'
+            // comment_count column and to number the comments.
+            int[] counts = commentCounts(executor);
+            long[] firstComment = new long[posts + 1];
+            for (int i = 0; i < posts; i++) {
+                firstComment[i + 1] = firstComment[i] + counts[i];
+            }
+
+            // Step 3: Posts with their comments, one chunk of posts per transaction.
+            ZipfSampler authors = new ZipfSampler(users, authorSkew);
+            inParallel(executor, chunks(posts), chunk -> insertPosts(chunk, counts, firstComment,
+                    firstUserId, firstPostId, firstCommentId, authors));
+        } finally {
+            executor.shutdown();
+        }
+
+        // Step 4: Move the ID generators past the explicitly assigned IDs. Hibernate's pooled
+        // optimizer hands out the 49 IDs below each sequence value, hence the extra 50.
+        jdbcTemplate.execute("alter table users alter column id restart with " + (firstUserId + users));
+        jdbcTemplate.execute("alter table post alter column id restart with " + (firstPostId + posts));
+        jdbcTemplate.execute("alter sequence comment_seq restart with " + (firstCommentId + comments + 50));
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        long rows = (long) users + posts + comments;
+        log.info("Seeded {} users, {} posts and {} comments in {} ms ({} rows/s, seed {})",
+                users, posts, comments, elapsed.toMillis(), rows * 1000 / Math.max(1, elapsed.toMillis()), randomSeed);
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    private void insertUsers(int chunk, long firstUserId, String passwordHash) {
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        for (int i = chunk * batchSize; i < Math.min(users, (chunk + 1) * batchSize); i++) {
+            rows.add(new Object[]{firstUserId + i, "user" + (i + 1), passwordHash, "USER"});
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                "insert into users (id, username, password, role) values (?, ?, ?, ?)", rows));
+    }
+
+    private int[] commentCounts(ExecutorService executor) throws Exception {
+        // Popularity rank r (0 = hottest) belongs to a random post, so hot posts are not
+        // all at the start of the timeline.
+        int[] postOfRank = new int[posts];
+        Arrays.setAll(postOfRank, i -> i);
+        SplittableRandom shuffle = random(HOT_POSTS_STREAM, 0);
+        for (int i = posts - 1; i > 0; i--) {
+            int j = shuffle.nextInt(i + 1);
+            int tmp = postOfRank[i];
+            postOfRank[i] = postOfRank[j];
+            postOfRank[j] = tmp;
+        }
+        AtomicIntegerArray counts = new AtomicIntegerArray(posts);
+        if (posts > 0 && comments > 0) {
+            ZipfSampler popularity = new ZipfSampler(posts, commentSkew);
+            // Each chunk of draws has its own random stream; the sums do not depend on the
+            // order in which the chunks run.
+            int chunkSize = 100_000;
+            int chunks = (comments + chunkSize - 1) / chunkSize;
+            inParallel(executor, chunks, chunk -> {
+                SplittableRandom random = random(COMMENT_COUNTS_STREAM, chunk);
+                for (int i = chunk * chunkSize; i < Math.min(comments, (chunk + 1) * chunkSize); i++) {
+                    counts.incrementAndGet(postOfRank[popularity.sample(random)]);
+                }
+            });
+        }
+        int[] result = new int[posts];
+        for (int i = 0; i < posts; i++) {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+
+    private void insertPosts(int chunk, int[] counts, long[] firstComment, long firstUserId,
+                             long firstPostId, long firstCommentId, ZipfSampler authors) {
+        long slot = TIMELINE.toSeconds() / Math.max(1, posts);
+        List<Object[]> postRows = new ArrayList<>(batchSize);
+        List<Object[]> commentRows = new ArrayList<>(batchSize);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = chunk * batchSize; i < Math.min(posts, (chunk + 1) * batchSize); i++) {
+                SplittableRandom random = random(POSTS_STREAM, i);
+                // Strictly increasing with the ID, so the feed order is the ID order.
+                LocalDateTime createdAt = START.plusSeconds(i * slot + random.nextLong(Math.max(1, slot)));
+                String content = paragraphs(random, logNormal(random, POST_WORDS_MU, POST_WORDS_SIGMA));
+                long userId = firstUserId + authors.sample(random);
+
+                // The post's comments, oldest first, each a few hours after the previous one.
+                SplittableRandom commentRandom = random(COMMENTS_STREAM, i);
+                LocalDateTime commentedAt = createdAt;
+                for (int c = 0; c < counts[i]; c++) {
+                    commentedAt = commentedAt.plusSeconds(1 + (long) (-Math.log(1 - commentRandom.nextDouble()) * 3 * 3600));
+                    String text = sentence(commentRandom, logNormal(commentRandom, COMMENT_WORDS_MU, COMMENT_WORDS_SIGMA));
+                    commentRows.add(new Object[]{firstCommentId + firstComment[i] + c,
+                            text.length() > MAX_COMMENT_LENGTH ? text.substring(0, MAX_COMMENT_LENGTH) : text,
+                            Timestamp.valueOf(commentedAt), firstPostId + i,
+                            firstUserId + commentRandom.nextInt(users)});
+                }
+                long views = counts[i] * (20L + random.nextInt(60)) + random.nextInt(50);
+
+                PostContentRenderer.RenderedContent rendered = contentRenderer.render(content);
+                postRows.add(new Object[]{firstPostId + i, title(random), content, rendered.html(), rendered.excerpt(),
+                        rendered.wordCount(), PostContentRenderer.RULES_VERSION, Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt),
+                        counts[i] > 0 ? Timestamp.valueOf(commentedAt) : null, counts[i], views, userId});
+                if (postRows.size() >= batchSize) {
+                    flushPosts(postRows);
+                }
+                if (commentRows.size() >= batchSize) {
+                    // A comment must not be written before its post.
+                    flushPosts(postRows);
+                    flushComments(commentRows);
+                }
+            }
+            flushPosts(postRows);
+            flushComments(commentRows);
+        });
+    }
+
+    private void flushPosts(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into post (id, title, content, content_html, excerpt, word_count, " +
+                    "render_version, created_at, updated_at, last_comment_at, comment_count, view_count, version, " +
+                    "user_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)", rows);
+            rows.clear();
+        }
+    }
+
+    private void flushComments(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into comment (id, content, created_at, post_id, user_id) " +
+                    "values (?, ?, ?, ?, ?)", rows);
+            rows.clear();
+        }
+    }
+
+    private String title(SplittableRandom random) {
+        String words = sentence(random, 3 + random.nextInt(7));
+        return words.substring(0, words.length() - 1);
+    }
+
+    /**
+     * Builds an HTML body of about the given number of words, in paragraphs of three to
+     * eight sentences.
+     */
+    private String paragraphs(SplittableRandom random, int words) {
+        StringBuilder html = new StringBuilder(words * 7);
+        int remaining = words;
+        while (remaining > 0) {
+            html.append("<p>");
+            int sentences = 3 + random.nextInt(6);
+            for (int s = 0; s < sentences && remaining > 0; s++) {
+                int length = Math.min(remaining, 6 + random.nextInt(15));
+                if (s > 0) {
+                    html.append(' ');
+                }
+                html.append(sentence(random, length));
+                remaining -= length;
+            }
+            html.append("</p>\n");
+            if (html.length() > Post.MAX_CONTENT_LENGTH - 200) {
+                break;
+            }
+        }
+        return html.toString();
+    }
+
+    private String sentence(SplittableRandom random, int words) {
+        StringBuilder sentence = new StringBuilder(words * 7);
+        for (int w = 0; w < words; w++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (w == 0) {
+                sentence.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                sentence.append(' ').append(word);
+            }
+        }
+        return sentence.append('.').toString();
+    }
+
+    private static int logNormal(SplittableRandom random, double mu, double sigma) {
+        // Box-Muller transform for a standard normal value.
+        double normal = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        return Math.max(1, (int) Math.round(Math.exp(mu + sigma * normal)));
+    }
+
+    /**
+     * The random stream for one row or chunk: a function of the configured seed, the kind of
+     * data and the position only.
+     */
+    private SplittableRandom random(long stream, long index) {
+        return new SplittableRandom(randomSeed * 0x9E3779B97F4A7C15L + stream * 0xC2B2AE3D27D4EB4FL + index);
+    }
+
+    private int chunks(int rows) {
+        return (rows + batchSize - 1) / batchSize;
+    }
+
+    private static void inParallel(ExecutorService executor, int chunks, IntConsumer task) throws Exception {
+        List<Future<?>> futures = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int index = chunk;
+            futures.add(executor.submit(() -> task.accept(index)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    /**
+     * Draws ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent, by a
+     * binary search in the cumulative distribution.
+     */
+    static final class ZipfSampler {
+        private final double[] cumulative;
+
+        ZipfSampler(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int rank = 0; rank < n; rank++) {
+                sum += 1 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < n; rank++) {
+                cumulative[rank] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            int rank = index >= 0 ? index : -index - 1;
+            return Math.min(rank, cumulative.length - 1);
+        }
+    }
+}
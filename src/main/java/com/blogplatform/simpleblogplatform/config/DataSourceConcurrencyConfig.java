@@ -0,0 +1,53 @@
+package com.blogplatform.simpleblogplatform.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts a {@link ConcurrencyLimitingDataSource} in front of the application's DataSource
+ * when "blog.datasource.max-concurrency" is set. The vthreads profile sets it to the
+ * connection pool size, so no more request threads than there are connections ever
+ * compete for the pool.
+ *
+ * Metrics: blog.datasource.waiting (threads queued for a connection) and
+ * blog.datasource.active (connections handed out).
+ */
+@Configuration
+@ConditionalOnProperty("blog.datasource.max-concurrency")
+public class DataSourceConcurrencyConfig {
+
+    // Static, so that this post-processor does not force early creation of this class's
+    // other dependencies.
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(
+            Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource
+                        || !"dataSource".equals(beanName)) {
+                    return bean;
+                }
+                int maxConcurrency = environment.getRequiredProperty("blog.datasource.max-concurrency", Integer.class);
+                long maxWait = environment.getProperty("blog.datasource.max-wait-ms", Long.class, 5000L);
+                ConcurrencyLimitingDataSource limited =
+                        new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, maxWait);
+                meterRegistry.ifAvailable(registry -> {
+                    Gauge.builder("blog.datasource.waiting", limited,
+                            ConcurrencyLimitingDataSource::getWaitingThreads).register(registry);
+                    Gauge.builder("blog.datasource.active", limited,
+                            ConcurrencyLimitingDataSource::getActiveConnections).register(registry);
+                });
+                return limited;
+            }
+        };
+    }
+}
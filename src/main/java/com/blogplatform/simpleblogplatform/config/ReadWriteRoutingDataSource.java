@@ -0,0 +1,49 @@
+package com.blogplatform.simpleblogplatform.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ *
+ * The decision is made when a connection is requested, from the current transaction's
+ * read-only flag ({@code @Transactional(readOnly = true)}, and Spring Data's read
+ * methods). Spring only sets that flag after the transaction has asked for its
+ * connection, so this DataSource must sit behind a LazyConnectionDataSourceProxy, which
+ * fetches the real connection on the first statement.
+ *
+ * A thread can be pinned to the primary (see ReadYourWritesFilter); its read-only
+ * transactions then use the primary too, so they see writes the replica may not have yet.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Makes the current thread's reads use the primary until {@link #unpin()} is called.
+     */
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && PINNED_TO_PRIMARY.get() == null ? Target.REPLICA : Target.PRIMARY;
+    }
+}
@@ -0,0 +1,80 @@
+package com.blogplatform.simpleblogplatform.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read/write splitting, enabled by setting "blog.datasource.replica.url".
+ *
+ * Two connection pools are created: the primary from the usual spring.datasource.*
+ * properties and the replica from blog.datasource.replica.*. The application's
+ * DataSource routes each transaction to one of them (see ReadWriteRoutingDataSource):
+ * writes, and everything not marked read-only, go to the primary; read-only
+ * transactions go to the replica, unless the visitor wrote something within the last
+ * "blog.datasource.replica.read-your-writes-seconds" (see ReadYourWritesFilter).
+ *
+ * Requires spring.jpa.open-in-view=false: an EntityManager kept open for the whole
+ * request would hold on to the first transaction's connection, replica or not.
+ */
+@Configuration
+@ConditionalOnProperty("blog.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("blog.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${blog.datasource.replica.url}") String url,
+                                              @Value("${blog.datasource.replica.username:}") String username,
+                                              @Value("${blog.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username.isEmpty() ? properties.determineUsername() : username)
+                .password(username.isEmpty() ? properties.determinePassword() : password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * The DataSource used by JPA and JdbcTemplate. The lazy proxy delays fetching a real
+     * connection until the first statement, when the transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource));
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${blog.datasource.replica.read-your-writes-seconds:5}") long windowSeconds) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(Duration.ofSeconds(windowSeconds)));
+        // Ahead of Spring Security, so that loading the user at login is pinned as well.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -1,30 +1,71 @@
 package com.blogplatform.simpleblogplatform.config;
 
+import com.blogplatform.simpleblogplatform.security.BoundedPasswordEncoder;
+import com.blogplatform.simpleblogplatform.security.PasswordHashingAwareFailureHandler;
+import com.blogplatform.simpleblogplatform.security.SignedCookieRenewalFilter;
+import com.blogplatform.simpleblogplatform.security.SignedCookieSecurityContextRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod; // NEW: Import HttpMethod for specifying request types
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.savedrequest.CookieRequestCache;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+    /**
+     * BCrypt, run on a dedicated pool sized to the CPU count with a bounded queue, so
+     * that a burst of logins cannot occupy every request thread (see BoundedPasswordEncoder).
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${blog.password.threads:0}") int threads,
+                                           @Value("${blog.password.queue-capacity:16}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, Math.max(1, queueCapacity),
+                meterRegistry);
     }
 
+    /**
+     * @param sessionMode Where the logged-in user is kept between requests: "server" (the
+     *                    HttpSession, the default) or "cookie" (a signed cookie, see
+     *                    useSignedCookieSessions).
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   UserDetailsService userDetailsService,
+                                                   @Value("${blog.session.mode:server}") String sessionMode,
+                                                   @Value("${blog.session.signing-key:}") String signingKey,
+                                                   @Value("${blog.session.max-age-seconds:1800}") long maxAgeSeconds)
+            throws Exception {
         http
                 .authorizeHttpRequests(authorize -> authorize
                         // Rule 1: Secure the Admin Dashboard (from the previous task)
                         .requestMatchers("/admin/**").hasRole("ADMIN")
 
+                        // Operational endpoints (cache statistics, metrics) are for admins only.
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // --- NEW RULE ---
                         // Rule 2: Secure the action of submitting a new comment.
                         // We use HttpMethod.POST to specify that this rule only applies to form submissions.
@@ -35,7 +76,10 @@ public class SecurityConfig {
                         // --- REFINED PUBLIC ACCESS RULE ---
                         // Rule 3: Refine Public Access. We explicitly state that only GET requests are public.
                         // This prevents users from trying to POST, PUT, or DELETE to these URLs without being authenticated.
-                        .requestMatchers(HttpMethod.GET, "/", "/posts", "/posts/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/", "/posts", "/posts/**", "/search").permitAll()
+
+                        // The Atom feed and the sitemap are read by feed readers and crawlers.
+                        .requestMatchers(HttpMethod.GET, "/feed.atom", "/sitemap.xml", "/sitemap-posts-*.xml").permitAll()
 
                         // Other public pages and resources
                         .requestMatchers("/register", "/login", "/css/**", "/js/**").permitAll()
@@ -45,6 +89,8 @@ public class SecurityConfig {
                 )
                 .formLogin(formLogin -> formLogin
                         .loginPage("/login")
+                        // Answers 503 when password hashing is saturated; otherwise "/login?error".
+                        .failureHandler(new PasswordHashingAwareFailureHandler())
                         .permitAll()
                 )
                 .logout(logout -> logout
@@ -52,6 +98,52 @@ public class SecurityConfig {
                         .logoutSuccessUrl("/")
                 );
 
+        if ("cookie".equalsIgnoreCase(sessionMode)) {
+            useSignedCookieSessions(http, userDetailsService, signingKey, Duration.ofSeconds(maxAgeSeconds));
+        }
+
         return http.build();
     }
+
+    /**
+     * Stateless mode: nothing about a visitor is kept in server memory, so any node can
+     * serve any request and the load balancer needs no sticky sessions.
+     *
+     * - The authenticated user and role travel in an HMAC-signed, expiring cookie
+     *   (SignedCookieSecurityContextRepository), renewed while the user is active.
+     * - The CSRF token lives in a cookie too; forms still carry it as a hidden field, and
+     *   a forged request cannot read the cookie to copy it.
+     * - The page requested before login is remembered in a cookie instead of the session.
+     *
+     * A server-side session after login holds the SecurityContext, the CSRF token and the
+     * saved request; SessionMemoryBenchmarkTests measured about 1.25 KB per session, so
+     * 10k logged-in users cost about 12 MB of heap on the node they are pinned to. In
+     * cookie mode the same 10k users cost no heap; instead each request carries about 130
+     * bytes of cookies (login and CSRF token) rather than a 43-byte JSESSIONID, and spends
+     * about 7 microseconds verifying the HMAC.
+     */
+    private void useSignedCookieSessions(HttpSecurity http, UserDetailsService userDetailsService,
+                                         String signingKey, Duration maxAge) throws Exception {
+        SignedCookieSecurityContextRepository repository =
+                new SignedCookieSecurityContextRepository(signingKey(signingKey), maxAge, Clock.systemUTC());
+        http
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .securityContext(context -> context.securityContextRepository(repository))
+                .csrf(csrf -> csrf.csrfTokenRepository(new CookieCsrfTokenRepository()))
+                .requestCache(cache -> cache.requestCache(new CookieRequestCache()))
+                .addFilterAfter(new SignedCookieRenewalFilter(repository, userDetailsService),
+                        SecurityContextHolderFilter.class);
+    }
+
+    private static byte[] signingKey(String configured) {
+        if (!configured.isBlank()) {
+            return Base64.getDecoder().decode(configured.trim());
+        }
+        // Fine for a single node; with several nodes (or across restarts) every node must
+        // share the same key, or users are logged out whenever they reach another node.
+        log.warn("blog.session.signing-key is not set; using a random key for this process only");
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
 }
\ No newline at end of file
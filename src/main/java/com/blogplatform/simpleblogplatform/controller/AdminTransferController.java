@@ -0,0 +1,74 @@
+package com.blogplatform.simpleblogplatform.controller;
+
+import com.blogplatform.simpleblogplatform.dto.TransferStats;
+import com.blogplatform.simpleblogplatform.service.PostImportException;
+import com.blogplatform.simpleblogplatform.service.PostTransferService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.io.IOException;
+
+/**
+ * Backup and migration endpoints for admins (secured by the "/admin/**" rule in SecurityConfig).
+ *
+ * GET /admin/export downloads every post with its comments as NDJSON; POST /admin/import
+ * takes such a file as the request body (Content-Type application/x-ndjson, with the usual
+ * CSRF token) and answers with the number of imported rows and the throughput.
+ */
+@Controller
+public class AdminTransferController {
+
+    private final PostTransferService transferService;
+
+    public AdminTransferController(PostTransferService transferService) {
+        this.transferService = transferService;
+    }
+
+    /**
+     * Streams the export straight into the response. Nothing is buffered, so the download
+     * starts immediately and memory use does not depend on the size of the blog.
+     *
+     * @param response The response to write the NDJSON to.
+     */
+    @GetMapping("/admin/export")
+    public void exportPosts(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("blog-export.ndjson").build().toString());
+        transferService.exportTo(response.getOutputStream());
+    }
+
+    /**
+     * Imports the NDJSON in the request body, reading it as it arrives.
+     *
+     * @param request The request whose body holds the NDJSON.
+     * @return The number of imported posts and comments, and the rows per second.
+     */
+    @PostMapping(value = "/admin/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseBody
+    public TransferStats importPosts(HttpServletRequest request) throws IOException {
+        return transferService.importFrom(request.getInputStream());
+    }
+
+    /**
+     * Answers a failed import with 400 Bad Request and the reason, including the line
+     * that failed and how many posts were imported before it.
+     *
+     * @param e The failure.
+     * @return A 400 response with the message as plain text.
+     */
+    @ExceptionHandler(PostImportException.class)
+    public ResponseEntity<String> handleImportFailure(PostImportException e) {
+        return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+}
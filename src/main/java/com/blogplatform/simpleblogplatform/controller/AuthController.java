@@ -1,9 +1,14 @@
 package com.blogplatform.simpleblogplatform.controller;
 
 import com.blogplatform.simpleblogplatform.model.User;
+import com.blogplatform.simpleblogplatform.security.PasswordHashingRejectedException;
 import com.blogplatform.simpleblogplatform.service.UserService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -50,20 +55,35 @@ public class AuthController {
      * Processes the submission of the registration form.
      *
      * @param user The User object populated with data from the form.
-     * @param redirectAttributes Used to add flash attributes for the redirect.
+     * @param redirectAttributes Used to add query parameters to the redirect.
      * @return A redirect instruction to the login page.
      */
     @PostMapping("/register")
     public String processRegistration(@ModelAttribute("user") User user, RedirectAttributes redirectAttributes) {
         try {
             userService.registerUser(user);
-            // Add a success message that will be displayed on the login page after redirect.
-            redirectAttributes.addFlashAttribute("registrationSuccess", "Registration successful! Please log in.");
-            return "redirect:/login";
+            // The login page shows a success message when it sees the "registered" parameter.
+            // A query parameter is used rather than a flash attribute, because flash
+            // attributes are kept in the HttpSession, which the stateless mode never creates.
+            return "redirect:/login?registered";
         } catch (IllegalStateException e) {
-            // If the username already exists, add an error message and return to the form.
-            redirectAttributes.addFlashAttribute("registrationError", e.getMessage());
+            // If the username already exists, return to the form, which shows an error message.
+            redirectAttributes.addAttribute("taken", user.getUsername());
             return "redirect:/register";
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Answers a registration that could not hash the password, because password hashing
+     * is saturated, with 503 Service Unavailable instead of an error page.
+     *
+     * @param e The rejection.
+     * @return A 503 response asking the client to retry shortly.
+     */
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<String> handlePasswordHashingRejected(PasswordHashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+}
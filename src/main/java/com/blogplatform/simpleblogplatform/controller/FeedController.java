@@ -0,0 +1,99 @@
+package com.blogplatform.simpleblogplatform.controller;
+
+import com.blogplatform.simpleblogplatform.syndication.AtomFeed;
+import com.blogplatform.simpleblogplatform.syndication.SitemapWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+
+/**
+ * FeedController serves the machine-readable views of the blog: the Atom feed for feed
+ * readers and the sitemap for search engine crawlers. Both are polled far more often
+ * than they change, so every response carries validators and most polls end in a 304.
+ */
+@Controller
+public class FeedController {
+
+    private final AtomFeed atomFeed;
+    private final SitemapWriter sitemapWriter;
+
+    public FeedController(AtomFeed atomFeed, SitemapWriter sitemapWriter) {
+        this.atomFeed = atomFeed;
+        this.sitemapWriter = sitemapWriter;
+    }
+
+    /**
+     * Sends the Atom feed of the newest posts, straight from memory.
+     *
+     * @param response   The response the feed is written to.
+     * @param webRequest Used to evaluate conditional request headers.
+     * @throws IOException If writing the response fails.
+     */
+    @GetMapping("/feed.atom")
+    public void showAtomFeed(HttpServletResponse response, WebRequest webRequest) throws IOException {
+        AtomFeed.Snapshot feed = atomFeed.snapshot();
+        if (webRequest.checkNotModified(feed.etag(), feed.lastModified())) {
+            return;
+        }
+        setRevalidateHeaders(response);
+        response.setContentType("application/atom+xml;charset=UTF-8");
+        response.setContentLength(feed.xml().length);
+        response.getOutputStream().write(feed.xml());
+    }
+
+    /**
+     * Sends the sitemap index, which lists the files of post URLs.
+     *
+     * @param response   The response the index is written to.
+     * @param webRequest Used to evaluate conditional request headers.
+     * @throws IOException If writing the response fails.
+     */
+    @GetMapping("/sitemap.xml")
+    public void showSitemapIndex(HttpServletResponse response, WebRequest webRequest) throws IOException {
+        if (webRequest.checkNotModified(sitemapWriter.etag(), sitemapWriter.lastModified())) {
+            return;
+        }
+        setRevalidateHeaders(response);
+        response.setContentType("application/xml;charset=UTF-8");
+        sitemapWriter.writeIndex(response.getWriter());
+    }
+
+    /**
+     * Sends one file of the sitemap, streamed from the database. Files that the sitemap
+     * index does not list are answered with 404, so crawlers stop asking for them.
+     *
+     * @param file       The zero-based number of the file.
+     * @param response   The response the file is written to.
+     * @param webRequest Used to evaluate conditional request headers.
+     * @throws IOException If writing the response fails.
+     */
+    @GetMapping("/sitemap-posts-{file}.xml")
+    public void showSitemapFile(@PathVariable long file, HttpServletResponse response, WebRequest webRequest)
+            throws IOException {
+        // A client can only hold a matching validator for a file that existed at that version.
+        if (webRequest.checkNotModified(sitemapWriter.etag(), sitemapWriter.lastModified())) {
+            return;
+        }
+        if (!sitemapWriter.hasFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        setRevalidateHeaders(response);
+        response.setContentType("application/xml;charset=UTF-8");
+        sitemapWriter.writeFile(file, response.getWriter());
+    }
+
+    /**
+     * Lets clients and shared caches store the response but requires them to revalidate
+     * it before every reuse (see PostController).
+     */
+    private static void setRevalidateHeaders(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePublic().getHeaderValue());
+    }
+}
@@ -1,18 +1,31 @@
 package com.blogplatform.simpleblogplatform.controller;
 
+import com.blogplatform.simpleblogplatform.cache.PostFragmentCache;
+import com.blogplatform.simpleblogplatform.cache.PostFragmentRenderer;
 import com.blogplatform.simpleblogplatform.dto.CommentDto;
-import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.dto.FeedCursor;
+import com.blogplatform.simpleblogplatform.dto.PostFeedPage;
+import com.blogplatform.simpleblogplatform.dto.PostValidator;
+import com.blogplatform.simpleblogplatform.render.PostArchiveRenderer;
+import com.blogplatform.simpleblogplatform.service.CommentIngestionService;
 import com.blogplatform.simpleblogplatform.service.CommentService; // NEW: Import CommentService
 import com.blogplatform.simpleblogplatform.service.PostService;
+import com.blogplatform.simpleblogplatform.service.ViewCounterService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute; // NEW: Import ModelAttribute
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping; // NEW: Import PostMapping
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.security.Principal; // NEW: Import Principal
-import java.util.List;
 
 /**
  * PostController handles all public-facing web requests related to blog posts.
@@ -23,43 +36,132 @@ public class PostController {
 
     private final PostService postService;
     private final CommentService commentService;
+    private final PostFragmentRenderer fragmentRenderer;
+    private final ViewCounterService viewCounter;
+    private final CommentIngestionService commentIngestion;
+    private final PostArchiveRenderer archiveRenderer;
 
-    public PostController(PostService postService, CommentService commentService) {
+    public PostController(PostService postService, CommentService commentService,
+                          PostFragmentRenderer fragmentRenderer, ViewCounterService viewCounter,
+                          CommentIngestionService commentIngestion, PostArchiveRenderer archiveRenderer) {
         this.postService = postService;
         this.commentService = commentService;
+        this.fragmentRenderer = fragmentRenderer;
+        this.viewCounter = viewCounter;
+        this.commentIngestion = commentIngestion;
+        this.archiveRenderer = archiveRenderer;
     }
 
+    /**
+     * Displays one page of the home feed, newest posts first.
+     *
+     * @param before Cursor of the last post on the previous page; shows older posts.
+     * @param after  Cursor of the first post on the next page; shows newer posts.
+     * @param model  The Model object to pass data to the view.
+     * @param response The current response.
+     * @param webRequest Used to evaluate If-None-Match against the page's ETag.
+     * @return The logical name of the view template ("home"), or null if a 304 was sent.
+     */
     @GetMapping("/")
-    public String showHomePage(Model model) {
-        List<Post> allPosts = postService.findAllPosts();
-        model.addAttribute("posts", allPosts);
+    public String showHomePage(@RequestParam(required = false) String before,
+                               @RequestParam(required = false) String after,
+                               Model model,
+                               HttpServletResponse response,
+                               WebRequest webRequest) {
+        PostFeedPage feed = postService.findFeedPage(FeedCursor.parse(before), FeedCursor.parse(after));
+
+        // The feed page has no user-specific content, so its ETag is a digest of the page
+        // data itself. If the client's copy is current we answer 304 without rendering.
+        // A feed page has no single modification time (a deletion has no timestamp),
+        // so it is validated by ETag only.
+        if (webRequest.checkNotModified(feed.etag())) {
+            return null;
+        }
+        setRevalidateHeaders(response);
+
+        model.addAttribute("feed", feed);
+        model.addAttribute("posts", feed.posts());
         return "home";
     }
 
+    /**
+     * Displays the most viewed posts.
+     *
+     * @param model The Model object to pass data to the view.
+     * @return The logical name of the view template ("popular").
+     */
+    @GetMapping("/posts/popular")
+    public String showPopularPosts(Model model) {
+        model.addAttribute("posts", postService.findMostViewed());
+        return "popular";
+    }
+
+    /**
+     * Displays the archive: every post, newest first, on one page. The page is written
+     * straight to the response by PostArchiveRenderer, which by default streams it from
+     * a database cursor, so its cost in memory does not grow with the number of posts.
+     *
+     * @param request  The current request.
+     * @param response The response the page is written to.
+     * @throws IOException If writing the response fails.
+     */
+    @GetMapping("/posts/archive")
+    public void showArchive(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        archiveRenderer.render(request, response);
+    }
+
     // --- NEW METHOD START ---
 
     /**
      * Handles GET requests to view a single post's detail page.
      *
      * @param id The ID of the post, extracted from the URL path.
+     * @param commentPage The zero-based page of comments to show.
      * @param model The Model object to pass data to the view.
-     * @return The logical name of the view template ("post-detail").
+     * @param request The current request, used to render the cached fragments.
+     * @param response The current response.
+     * @param webRequest Used to evaluate conditional request headers.
+     * @param principal The current user, or null for anonymous visitors.
+     * @return The logical name of the view template ("post-detail"), or null if a 304 was sent.
      */
     @GetMapping("/posts/{id}")
-    public String showPostDetailPage(@PathVariable Long id, Model model) {
-        // Step 1: Use the 'id' to fetch the specific post from the PostService.
-        // It's a best practice for service methods to return an Optional to handle
-        // the case where a post with the given ID doesn't exist.
-        Post post = postService.findPostById(id);
-                // If the post is not found, we could throw an exception which could
-                // be handled by a @ControllerAdvice to show a custom 404 page.
-                // For now, we'll assume the post exists. A more robust implementation
-                // will be added in a later step (Error Handling).
+    public String showPostDetailPage(@PathVariable Long id,
+                                     @RequestParam(name = "commentPage", defaultValue = "0") int commentPage,
+                                     Model model,
+                                     HttpServletRequest request,
+                                     HttpServletResponse response,
+                                     WebRequest webRequest,
+                                     Principal principal) {
+        // Step 0: Conditional GET for anonymous visitors. Their page depends only on the
+        // post and its comments, so the validators are derived from the post's version and
+        // timestamps, loaded with a single primary-key lookup. Logged-in users get a
+        // per-session CSRF token in the comment form, so their pages are never validated.
+        if (principal == null) {
+            PostValidator validator = postService.findPostValidator(id);
+            if (webRequest.checkNotModified(validator.etag(), validator.lastModified())) {
+                // A revalidated page is still a view.
+                viewCounter.recordView(id);
+                return null;
+            }
+            setRevalidateHeaders(response);
+            // A shared cache must not hand this anonymous page to a logged-in user.
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+        }
 
+        // Step 1: Get the rendered article and comment-list fragments for this post.
+        // They are identical for every visitor, so they usually come straight from the
+        // in-memory fragment cache without touching the database or the template engine.
+        // If the post does not exist, findPostById throws while rendering a cache miss.
+        PostFragmentCache.Fragments fragments = fragmentRenderer.render(id, commentPage, request, response);
 
-        // Step 2: Add the found Post object to the model.
-        // We'll use the key "post" to access this object in our Thymeleaf template.
-        model.addAttribute("post", post);
+        // The post exists, so count the view. This only bumps an in-memory counter;
+        // ViewCounterService writes the totals to the database in the background.
+        viewCounter.recordView(id);
+
+        // Step 2: Add the fragments to the model. Only the comment form around them is
+        // rendered per request, because it depends on the current user.
+        model.addAttribute("fragments", fragments);
+        model.addAttribute("postId", id);
 
         // Step 3: Return the name of the detail view template.
         // Spring's ViewResolver will look for a template named "post-detail.html".
@@ -85,11 +187,34 @@ public class PostController {
         // Step 1: Get the username of the logged-in user securely from the Principal object.
         String username = principal.getName();
 
-        // Step 2: Delegate the business logic of saving the comment to the CommentService.
-        commentService.saveComment(postId, username, commentDto);
+        // Step 2: Hand the comment over for saving. Depending on "blog.comments.ingestion"
+        // it is either saved right away, or validated and queued for the batch writer
+        // (a full queue results in 503 Service Unavailable).
+        commentIngestion.submit(postId, username, commentDto);
 
         // Step 3: Redirect the user back to the post detail page using the PRG pattern.
         // This prevents duplicate form submissions on page refresh.
         return "redirect:/posts/" + postId;
     }
-}
\ No newline at end of file
+
+    /**
+     * Deletes a comment. Only admins can reach this URL (see SecurityConfig).
+     *
+     * @param commentId The ID of the comment to delete.
+     * @return A redirect instruction to the post the comment belonged to.
+     */
+    @PostMapping("/admin/comments/{commentId}/delete")
+    public String deleteComment(@PathVariable Long commentId) {
+        Long postId = commentService.deleteComment(commentId);
+        return "redirect:/posts/" + postId;
+    }
+
+    /**
+     * Lets browsers and shared caches store the page but requires them to revalidate it
+     * (with the ETag / Last-Modified just set) before every reuse. Setting Cache-Control
+     * explicitly also stops Spring Security from adding its default "no-store" header.
+     */
+    private static void setRevalidateHeaders(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePublic().getHeaderValue());
+    }
+}
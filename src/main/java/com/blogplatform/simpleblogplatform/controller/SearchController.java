@@ -0,0 +1,76 @@
+package com.blogplatform.simpleblogplatform.controller;
+
+import com.blogplatform.simpleblogplatform.search.PostSearchIndex;
+import com.blogplatform.simpleblogplatform.search.SearchResults;
+import com.blogplatform.simpleblogplatform.search.TitleSuggester;
+import com.blogplatform.simpleblogplatform.service.PostService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * SearchController handles full-text searches and title suggestions over the published posts.
+ */
+@Controller
+public class SearchController {
+
+    private final PostSearchIndex searchIndex;
+    private final TitleSuggester titleSuggester;
+    private final PostService postService;
+    private final int pageSize;
+
+    public SearchController(PostSearchIndex searchIndex, TitleSuggester titleSuggester, PostService postService,
+                            @Value("${blog.search.page-size:10}") int pageSize) {
+        this.searchIndex = searchIndex;
+        this.titleSuggester = titleSuggester;
+        this.postService = postService;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Displays one page of search results.
+     *
+     * @param q     The search query; an empty query shows an empty result page.
+     * @param page  The zero-based page of results; pages past the last result are empty.
+     * @param model The Model object to pass data to the view.
+     * @return The logical name of the view template ("search").
+     * @throws ResponseStatusException 400 Bad Request if the page is negative.
+     */
+    @GetMapping("/search")
+    public String search(@RequestParam(defaultValue = "") String q,
+                         @RequestParam(defaultValue = "0") int page,
+                         Model model) {
+        if (page < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The page must not be negative");
+        }
+
+        // Step 1: Rank the matching posts using the in-memory index (no database access).
+        SearchResults results = searchIndex.search(q, page, pageSize);
+
+        // Step 2: Load summaries for just the posts on this page, keeping the rank order.
+        model.addAttribute("q", q);
+        model.addAttribute("results", results);
+        model.addAttribute("posts", postService.findSummariesByIds(results.postIds()));
+        return "search";
+    }
+
+    /**
+     * Returns title suggestions for a search box, as JSON. Clients call this on every
+     * keystroke, so it is answered entirely from memory.
+     *
+     * @param prefix What the user has typed so far.
+     * @return The newest matching posts' IDs and titles.
+     */
+    @GetMapping("/posts/suggest")
+    @ResponseBody
+    public List<TitleSuggester.Suggestion> suggest(@RequestParam(defaultValue = "") String prefix) {
+        return titleSuggester.suggest(prefix);
+    }
+}
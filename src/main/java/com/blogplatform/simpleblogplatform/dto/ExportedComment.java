@@ -0,0 +1,17 @@
+package com.blogplatform.simpleblogplatform.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+
+/**
+ * A comment as it appears in an NDJSON export, nested inside its post's line.
+ *
+ * @param postId    The ID of the commented post in the exporting database. It is only used
+ *                  to pair comments with their post while exporting and is not written.
+ * @param author    The author's username.
+ * @param content   The comment text.
+ * @param createdAt When the comment was written.
+ */
+public record ExportedComment(@JsonIgnore Long postId, String author, String content, LocalDateTime createdAt) {
+}
@@ -0,0 +1,23 @@
+package com.blogplatform.simpleblogplatform.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One line of an NDJSON export: a post with all of its comments, oldest first.
+ * Authors are referenced by username, so a file can be imported into a database
+ * whose IDs differ from the exporting one.
+ *
+ * @param id        The post's ID in the exporting database (informational; imports assign new IDs).
+ * @param title     The post's title.
+ * @param content   The post's content.
+ * @param author    The author's username, or null for a post without an author.
+ * @param createdAt When the post was created.
+ * @param updatedAt When the post was last saved.
+ * @param viewCount How often the post was viewed.
+ * @param comments  The post's comments.
+ */
+public record ExportedPost(Long id, String title, String content, String author,
+                           LocalDateTime createdAt, LocalDateTime updatedAt, long viewCount,
+                           List<ExportedComment> comments) {
+}
@@ -0,0 +1,50 @@
+package com.blogplatform.simpleblogplatform.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * A keyset cursor into the home feed. The feed is ordered by (createdAt, id)
+ * descending, so a cursor is simply the sort key of the post at a page boundary.
+ * The id breaks ties between posts created at the same instant.
+ *
+ * @param createdAt The creation timestamp of the boundary post.
+ * @param id        The primary key of the boundary post.
+ */
+public record FeedCursor(LocalDateTime createdAt, Long id) {
+
+    private static final char SEPARATOR = '_';
+
+    /**
+     * Encodes this cursor into the compact form used in query parameters,
+     * for example "2024-05-01T10:15:30.123_42".
+     */
+    public String encode() {
+        return createdAt.toString() + SEPARATOR + id;
+    }
+
+    /**
+     * Parses a cursor previously produced by {@link #encode()}.
+     *
+     * @param token The encoded cursor, possibly null or blank.
+     * @return The decoded cursor, or null if the token is absent or malformed.
+     *         A malformed cursor is treated as "no cursor" so a tampered URL
+     *         simply lands on the first page.
+     */
+    public static FeedCursor parse(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        int separator = token.lastIndexOf(SEPARATOR);
+        if (separator <= 0 || separator == token.length() - 1) {
+            return null;
+        }
+        try {
+            LocalDateTime createdAt = LocalDateTime.parse(token.substring(0, separator));
+            Long id = Long.valueOf(token.substring(separator + 1));
+            return new FeedCursor(createdAt, id);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+    }
+}
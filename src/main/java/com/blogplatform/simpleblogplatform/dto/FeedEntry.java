@@ -0,0 +1,29 @@
+package com.blogplatform.simpleblogplatform.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A post as it appears in the Atom feed. Filled by a JPQL constructor expression in
+ * PostRepository, without loading the article body.
+ *
+ * @param id             The post's primary key.
+ * @param title          The post's title.
+ * @param authorUsername The author's username, or null if the post has no author.
+ * @param excerpt        The short plain-text excerpt stored when the post was saved.
+ * @param createdAt      When the post was first published.
+ * @param updatedAt      When the post was last saved, or null.
+ */
+public record FeedEntry(Long id,
+                        String title,
+                        String authorUsername,
+                        String excerpt,
+                        LocalDateTime createdAt,
+                        LocalDateTime updatedAt) {
+
+    /**
+     * When the post itself (not its comments) last changed.
+     */
+    public LocalDateTime updated() {
+        return updatedAt != null && (createdAt == null || updatedAt.isAfter(createdAt)) ? updatedAt : createdAt;
+    }
+}
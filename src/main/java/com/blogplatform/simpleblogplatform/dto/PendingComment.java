@@ -0,0 +1,15 @@
+package com.blogplatform.simpleblogplatform.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A validated comment that has been accepted but not yet written to the database.
+ * It only holds IDs, so writing it needs no further lookups.
+ *
+ * @param postId    The ID of the commented post.
+ * @param userId    The ID of the author.
+ * @param content   The comment text.
+ * @param createdAt When the comment was submitted.
+ */
+public record PendingComment(Long postId, Long userId, String content, LocalDateTime createdAt) {
+}
@@ -0,0 +1,41 @@
+package com.blogplatform.simpleblogplatform.dto;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * One page of the keyset-paginated home feed.
+ *
+ * @param posts        The posts on this page, newest first.
+ * @param olderCursor  The cursor for the next (older) page, or null if this is the last page.
+ * @param newerCursor  The cursor for the previous (newer) page, or null if this is the first page.
+ */
+public record PostFeedPage(List<PostSummary> posts, FeedCursor olderCursor, FeedCursor newerCursor) {
+
+    public boolean hasOlder() {
+        return olderCursor != null;
+    }
+
+    public boolean hasNewer() {
+        return newerCursor != null;
+    }
+
+    /**
+     * A strong entity tag for the rendered page: a digest of everything the page shows,
+     * including the navigation cursors. Any edit, new comment or deletion that affects
+     * this page changes the tag. View counts are not shown on the feed and are left out,
+     * so the periodic flush of view counts does not change the tag.
+     */
+    public String etag() {
+        StringBuilder state = new StringBuilder();
+        for (PostSummary post : posts) {
+            state.append(post.id()).append('|').append(post.title()).append('|').append(post.createdAt())
+                    .append('|').append(post.authorUsername()).append('|').append(post.excerpt())
+                    .append('|').append(post.commentCount()).append('\n');
+        }
+        state.append(olderCursor).append('|').append(newerCursor);
+        return "\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
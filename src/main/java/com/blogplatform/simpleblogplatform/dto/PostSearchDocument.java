@@ -0,0 +1,11 @@
+package com.blogplatform.simpleblogplatform.dto;
+
+/**
+ * The searchable text of a post, loaded without its author, comments or other columns.
+ *
+ * @param id      The post's primary key.
+ * @param title   The post's title.
+ * @param content The post's full content.
+ */
+public record PostSearchDocument(Long id, String title, String content) {
+}
@@ -0,0 +1,25 @@
+package com.blogplatform.simpleblogplatform.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A lightweight, read-only view of a post for listing pages.
+ * It is filled directly by a JPQL constructor expression in PostRepository, so
+ * listings never hydrate full Post entities, their article bodies or their authors.
+ *
+ * @param id             The post's primary key.
+ * @param title          The post's title.
+ * @param createdAt      When the post was first published.
+ * @param authorUsername The author's username, or null if the post has no author.
+ * @param excerpt        The short plain-text excerpt stored when the post was saved.
+ * @param commentCount   The number of comments on the post.
+ * @param viewCount      The number of recorded views (flushed periodically, so it may lag slightly).
+ */
+public record PostSummary(Long id,
+                          String title,
+                          LocalDateTime createdAt,
+                          String authorUsername,
+                          String excerpt,
+                          long commentCount,
+                          long viewCount) {
+}
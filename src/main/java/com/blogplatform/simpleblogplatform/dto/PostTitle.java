@@ -0,0 +1,13 @@
+package com.blogplatform.simpleblogplatform.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * The title of a post together with what is needed to rank it as a suggestion.
+ *
+ * @param id        The post's primary key.
+ * @param title     The post's title.
+ * @param createdAt When the post was created; newer posts are suggested first.
+ */
+public record PostTitle(Long id, String title, LocalDateTime createdAt) {
+}
@@ -0,0 +1,48 @@
+package com.blogplatform.simpleblogplatform.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * The HTTP cache validators of a post's page, loaded with a single primary-key lookup
+ * that does not touch the post's content or comments.
+ *
+ * @param id            The post's primary key.
+ * @param version       The post's optimistic-locking version.
+ * @param createdAt     When the post was created.
+ * @param updatedAt     When the post was last saved, or null.
+ * @param lastCommentAt When a comment was last added or removed, or null.
+ */
+public record PostValidator(Long id,
+                            Long version,
+                            LocalDateTime createdAt,
+                            LocalDateTime updatedAt,
+                            LocalDateTime lastCommentAt) {
+
+    /**
+     * A strong entity tag that changes whenever the post is edited or commented on.
+     */
+    public String etag() {
+        long commentStamp = lastCommentAt == null ? 0 : toEpochMillis(lastCommentAt);
+        return "\"p" + id + "-v" + version + "-c" + commentStamp + "\"";
+    }
+
+    /**
+     * The time of the latest change to the post or its comments, in epoch milliseconds,
+     * or -1 if unknown.
+     */
+    public long lastModified() {
+        LocalDateTime latest = createdAt;
+        if (updatedAt != null && (latest == null || updatedAt.isAfter(latest))) {
+            latest = updatedAt;
+        }
+        if (lastCommentAt != null && (latest == null || lastCommentAt.isAfter(latest))) {
+            latest = lastCommentAt;
+        }
+        return latest == null ? -1 : toEpochMillis(latest);
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
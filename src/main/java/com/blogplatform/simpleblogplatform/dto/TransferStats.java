@@ -0,0 +1,28 @@
+package com.blogplatform.simpleblogplatform.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Duration;
+
+/**
+ * The outcome of an NDJSON export or import.
+ *
+ * @param posts    The number of posts written or read.
+ * @param comments The number of comments written or read.
+ * @param elapsed  How long the transfer took.
+ */
+public record TransferStats(long posts, long comments, Duration elapsed) {
+
+    /** Posts and comments together. */
+    @JsonProperty
+    public long rows() {
+        return posts + comments;
+    }
+
+    /** Throughput over the whole transfer, in posts and comments per second. */
+    @JsonProperty
+    public long rowsPerSecond() {
+        long nanos = Math.max(1, elapsed.toNanos());
+        return Math.round(rows() * 1e9 / nanos);
+    }
+}
@@ -0,0 +1,23 @@
+package com.blogplatform.simpleblogplatform.event;
+
+/**
+ * Published by the service layer whenever a post or its comments change.
+ * Components that keep derived copies of post data in memory (rendered pages,
+ * indexes and so on) listen for it to stay in sync with the database.
+ * Listeners should use @TransactionalEventListener so they only react once the
+ * change has actually been committed.
+ *
+ * @param postId The ID of the post that changed.
+ * @param change What kind of change happened.
+ */
+public record PostChangedEvent(Long postId, Change change) {
+
+    public enum Change {
+        /** The post was created or its own fields were updated. */
+        SAVED,
+        /** The post was deleted. */
+        DELETED,
+        /** A comment was added to or removed from the post. */
+        COMMENTED
+    }
+}
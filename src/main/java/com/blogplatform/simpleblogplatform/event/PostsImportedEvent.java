@@ -0,0 +1,11 @@
+package com.blogplatform.simpleblogplatform.event;
+
+/**
+ * Published once a bulk import has committed its posts. Importing writes rows directly,
+ * without a PostChangedEvent per post, so components with in-memory copies of post
+ * data rebuild them from the database instead.
+ *
+ * @param posts The number of posts that were imported.
+ */
+public record PostsImportedEvent(long posts) {
+}
@@ -0,0 +1,13 @@
+package com.blogplatform.simpleblogplatform.event;
+
+/**
+ * Published once PostRenderJob has re-rendered the stored HTML, excerpt and word count
+ * of posts from their unchanged source under new rendering rules. The job writes rows
+ * directly, possibly for every post, so it publishes this one event instead of a
+ * PostChangedEvent per post; components showing rendered content drop or reload their
+ * copies. Titles and source text are unchanged, so search and suggestions ignore it.
+ *
+ * @param posts The number of posts that were re-rendered.
+ */
+public record PostsRenderedEvent(long posts) {
+}
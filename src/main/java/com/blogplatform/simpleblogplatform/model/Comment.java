@@ -1,11 +1,16 @@
 package com.blogplatform.simpleblogplatform.model;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDateTime;
 
 /**
@@ -13,17 +18,24 @@ import java.time.LocalDateTime;
  * This entity is fully relational, linked to both a Post and a User (the author).
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "comment")
 public class Comment {
 
+    // IDs come from a database sequence, 50 at a time (Hibernate's "pooled" optimizer).
+    // Unlike IDENTITY, this lets Hibernate assign IDs before inserting, so many comments
+    // can be written with a single JDBC batch (see hibernate.jdbc.batch_size).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comment_seq")
+    @SequenceGenerator(name = "comment_seq", sequenceName = "comment_seq", allocationSize = 50)
     private Long id;
 
     private String content;
 
     private LocalDateTime createdAt;
 
-    @ManyToOne
+    // LAZY: comments are always listed in the context of a post that is already
+    // loaded, so there is no reason to select the same post again for every row.
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id", nullable = false)
     private Post post;
 
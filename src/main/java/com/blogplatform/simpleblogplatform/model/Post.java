@@ -5,12 +5,18 @@ import jakarta.persistence.OneToMany;
 import java.util.ArrayList;
 import java.util.List;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+
 import java.time.LocalDateTime;
 
 /**
@@ -18,18 +24,76 @@ import java.time.LocalDateTime;
  * This class now includes relationships to its author (User) and its comments.
  */
 @Entity
+// Posts are read far more often than they are written, so they are kept in the
+// Hibernate second-level cache (region "post", configured in ehcache.xml).
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "post")
+// Only changed columns are written on update, so saving an edited post never overwrites
+// lastCommentAt with a value read before a concurrent comment was recorded.
+@DynamicUpdate
 public class Post {
 
+    /** Maximum length of the stored plain-text excerpt shown on listing pages. */
+    public static final int EXCERPT_LENGTH = 280;
+
+    /** Maximum length of a post's content, in characters (see migration V3). */
+    public static final int MAX_CONTENT_LENGTH = 100_000;
+
+    /** Maximum length of the rendered HTML of a post's content (see migration V4). */
+    public static final int MAX_CONTENT_HTML_LENGTH = 1_000_000;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     private String title;
 
+    // The Markdown source, as written by the author.
+    @Column(length = MAX_CONTENT_LENGTH)
     private String content;
 
+    // The sanitized HTML rendering of the content, produced when the post is saved
+    // (see PostContentRenderer). Pages output it as is, without parsing anything.
+    @Column(length = MAX_CONTENT_HTML_LENGTH)
+    private String contentHtml;
+
+    // The number of words in the content, computed together with contentHtml.
+    private int wordCount;
+
+    // The PostContentRenderer.RULES_VERSION that produced contentHtml, excerpt and wordCount.
+    private int renderVersion;
+
+    // A short plain-text preview of the content, computed once when the post is saved.
+    @Column(length = EXCERPT_LENGTH)
+    private String excerpt;
+
     private LocalDateTime createdAt;
 
+    // When the post itself was last saved. Together with lastCommentAt it drives the
+    // Last-Modified header of the post's page.
+    private LocalDateTime updatedAt;
+
+    // When a comment was last added or removed. It is written with a direct SQL update
+    // (see PostRepositoryCustom#recordComment), so commenting never bumps the version
+    // or conflicts with an edit of the post.
+    private LocalDateTime lastCommentAt;
+
+    // The number of comments on the post, kept up to date by the same SQL updates as
+    // lastCommentAt ("comment_count = comment_count + 1" is atomic in the database), so
+    // nothing ever has to load or count the comments just to show how many there are.
+    @Column(nullable = false, updatable = false)
+    private long commentCount;
+
+    // How often the post has been viewed. Views are counted in memory and added to this
+    // column in periodic batches (see ViewCounterService), never through the entity, so
+    // the value on a loaded or cached Post may lag behind; listings read the column directly.
+    @Column(nullable = false, updatable = false)
+    private long viewCount;
+
+    // Optimistic-locking version, incremented by Hibernate on every update of the post.
+    // It is also part of the post page's ETag.
+    @Version
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
@@ -93,6 +157,38 @@ public class Post {
         this.content = content;
     }
 
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
+    public String getContentHtml() {
+        return contentHtml;
+    }
+
+    public void setContentHtml(String contentHtml) {
+        this.contentHtml = contentHtml;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public void setWordCount(int wordCount) {
+        this.wordCount = wordCount;
+    }
+
+    public int getRenderVersion() {
+        return renderVersion;
+    }
+
+    public void setRenderVersion(int renderVersion) {
+        this.renderVersion = renderVersion;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -101,6 +197,46 @@ public class Post {
         this.createdAt = createdAt;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getLastCommentAt() {
+        return lastCommentAt;
+    }
+
+    public void setLastCommentAt(LocalDateTime lastCommentAt) {
+        this.lastCommentAt = lastCommentAt;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(long viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public User getUser() {
         return user;
     }
@@ -1,17 +1,29 @@
 package com.blogplatform.simpleblogplatform.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import java.util.List;
 
 @Entity
 // We explicitly name the table 'users' because 'user' is often a reserved keyword in SQL databases.
 @Table(name = "users")
+// Users are looked up on every login and comment submission. The entity itself is
+// cached in region "user", and the username -> id mapping in "user-natural-id", so a
+// repeated lookup by username needs no database round trip at all.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-natural-id")
 public class User {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // The username is the user's natural (business) key and never changes.
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String username;
 
@@ -0,0 +1,31 @@
+package com.blogplatform.simpleblogplatform.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Measures how long the view of a request takes to render: Spring MVC calls postHandle
+ * right before rendering it and afterCompletion right after.
+ */
+public class RenderTimingInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = RenderTimingInterceptor.class.getName() + ".start";
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView != null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(START_ATTRIBUTE) instanceof Long start) {
+            RequestStatistics.recordRender(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.blogplatform.simpleblogplatform.monitoring;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * What one request cost: how many SQL statements it executed, how long they took inside
+ * the JDBC driver, and how long its templates took to render.
+ *
+ * RequestStatisticsFilter opens a set of statistics for each request on the thread that
+ * handles it; StatementTimingDataSource and the rendering code add to it. Work done on
+ * other threads (such as the asynchronous comment writer) is not attributed to the request.
+ */
+public class RequestStatistics {
+
+    /**
+     * The request attribute under which the finished statistics are left, for tests and
+     * anything else that looks at the request after it has been handled.
+     */
+    public static final String ATTRIBUTE = RequestStatistics.class.getName();
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long jdbcNanos;
+    private long renderNanos;
+
+    /**
+     * Starts collecting statistics for the current thread's request.
+     */
+    static RequestStatistics start() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Counts one executed statement (or JDBC batch) against the current request, if any.
+     */
+    public static void recordStatement(long nanos) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+            statistics.jdbcNanos += nanos;
+        }
+    }
+
+    /**
+     * Adds template rendering time to the current request, if any.
+     */
+    public static void recordRender(long nanos) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.renderNanos += nanos;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public Duration getJdbcTime() {
+        return Duration.ofNanos(jdbcNanos);
+    }
+
+    public Duration getRenderTime() {
+        return Duration.ofNanos(renderNanos);
+    }
+
+    /**
+     * The statistics as a Server-Timing header value, which browser developer tools show
+     * next to the request's own timings.
+     */
+    String toServerTiming() {
+        return String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d statements\", render;dur=%.2f",
+                jdbcNanos / 1e6, statements, renderNanos / 1e6);
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements, " + getJdbcTime().toNanos() / 1000 + " us JDBC, "
+                + getRenderTime().toNanos() / 1000 + " us rendering";
+    }
+}
@@ -0,0 +1,56 @@
+package com.blogplatform.simpleblogplatform.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request SQL statement counts, JDBC time and rendering time (see
+ * RequestStatisticsFilter for the metrics they end up in).
+ *
+ * Hidden lazy loads are the easiest way for a page to get slow unnoticed: a template
+ * touching a collection costs one query per row. The statement count per controller
+ * method makes them visible, and the tests hold the busiest pages to a fixed budget.
+ */
+@Configuration
+public class RequestStatisticsConfig implements WebMvcConfigurer {
+
+    // Static, so that this post-processor does not force early creation of this class's
+    // other dependencies.
+    @Bean
+    public static BeanPostProcessor statementTimingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof StatementTimingDataSource
+                        || !"dataSource".equals(beanName)) {
+                    return bean;
+                }
+                return new StatementTimingDataSource(dataSource);
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestStatisticsFilter> requestStatisticsFilter(
+            MeterRegistry meterRegistry, @Value("${blog.request-stats.header:false}") boolean header) {
+        FilterRegistrationBean<RequestStatisticsFilter> registration =
+                new FilterRegistrationBean<>(new RequestStatisticsFilter(meterRegistry, header));
+        // Ahead of Spring Security, so that loading the logged-in user is counted too.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RenderTimingInterceptor());
+    }
+}
@@ -0,0 +1,75 @@
+package com.blogplatform.simpleblogplatform.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Collects {@link RequestStatistics} for every request and records them per controller
+ * method, e.g. handler="PostController.showPostDetailPage":
+ *
+ * - blog.request.statements: SQL statements executed per request.
+ * - blog.request.jdbc: time spent executing them.
+ * - blog.request.render: time spent rendering templates.
+ *
+ * Requests not handled by a controller method (static files, the login form submission)
+ * are not recorded.
+ *
+ * With "blog.request-stats.header" on (the dev profile), each response also carries the
+ * figures in a Server-Timing header. Rendering writes the body, and headers cannot be
+ * added after the body has started, so in that mode every response is buffered in full
+ * before it is sent. That is fine while developing, but not for production traffic.
+ */
+public class RequestStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_NAME = "Server-Timing";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean header;
+
+    public RequestStatisticsFilter(MeterRegistry meterRegistry, boolean header) {
+        this.meterRegistry = meterRegistry;
+        this.header = header;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestStatistics statistics = RequestStatistics.start();
+        ContentCachingResponseWrapper buffered = header ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            chain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            RequestStatistics.stop();
+            request.setAttribute(RequestStatistics.ATTRIBUTE, statistics);
+            record(request, statistics);
+            if (buffered != null) {
+                buffered.setHeader(HEADER_NAME, statistics.toServerTiming());
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestStatistics statistics) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return;
+        }
+        String name = handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+        DistributionSummary.builder("blog.request.statements").tag("handler", name)
+                .register(meterRegistry).record(statistics.getStatements());
+        Timer.builder("blog.request.jdbc").tag("handler", name)
+                .register(meterRegistry).record(statistics.getJdbcTime());
+        Timer.builder("blog.request.render").tag("handler", name)
+                .register(meterRegistry).record(statistics.getRenderTime());
+    }
+}
@@ -0,0 +1,95 @@
+package com.blogplatform.simpleblogplatform.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A DataSource wrapper that reports every executed statement to {@link RequestStatistics}.
+ *
+ * It sits below Hibernate, Spring Data and JdbcTemplate alike, so it sees every query a
+ * request causes, including lazy loads Hibernate issues on its own. Each call of one of
+ * the execute methods counts as one statement; a JDBC batch counts once, because it is
+ * sent in one round trip. The time measured is the time spent inside that call.
+ */
+public class StatementTimingDataSource extends DelegatingDataSource {
+
+    public StatementTimingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timing(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timing(super.getConnection(username, password));
+    }
+
+    /**
+     * Wraps the connection so that the statements it creates are timed.
+     */
+    private static Connection timing(Connection connection) {
+        return proxy(Connection.class, connection, (method, args) -> {
+            Object result = method.invoke(connection, args);
+            return switch (result) {
+                case CallableStatement statement -> timing(CallableStatement.class, statement);
+                case PreparedStatement statement -> timing(PreparedStatement.class, statement);
+                case Statement statement -> timing(Statement.class, statement);
+                case null, default -> result;
+            };
+        });
+    }
+
+    private static <S extends Statement> S timing(Class<S> type, S statement) {
+        return proxy(type, statement, (method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return method.invoke(statement, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return method.invoke(statement, args);
+            } finally {
+                RequestStatistics.recordStatement(System.nanoTime() - start);
+            }
+        });
+    }
+
+    private interface Invocation {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Invocation invocation) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "unwrap":
+                            if (((Class<?>) args[0]).isInstance(target)) {
+                                return target;
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                    try {
+                        return invocation.invoke(method, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }));
+    }
+}
@@ -0,0 +1,157 @@
+package com.blogplatform.simpleblogplatform.render;
+
+import com.blogplatform.simpleblogplatform.dto.PostSummary;
+import com.blogplatform.simpleblogplatform.monitoring.RequestStatistics;
+import com.blogplatform.simpleblogplatform.repository.PostRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Renders the archive page (archive.html), which lists every post, in one of two modes
+ * chosen with "blog.archive.render":
+ *
+ * - streaming (default): the template iterates over a database cursor instead of a
+ *   list, and the output is flushed to the client every "blog.archive.flush-rows" posts.
+ *   The first bytes leave as soon as the first row has been read, and neither the posts
+ *   nor the page are ever held in memory as a whole, however many posts there are.
+ *   The price: the read-only transaction, and its connection, stay open until the last
+ *   byte has been handed to the client, so a slow client holds a connection longer.
+ *   An error halfway through can only cut the page short, since the status has been sent.
+ *   The servlet container's writer swallows I/O errors, so after every flush the writer
+ *   is asked whether the client is still there; if not, rendering stops at once and the
+ *   cursor, the transaction and the connection are released.
+ * - buffered: the classic way. All summaries are loaded into a list, the page is
+ *   rendered into a string, and only then sent. The connection is returned before
+ *   rendering starts, but time to first byte and memory grow with the number of posts.
+ */
+@Component
+public class PostArchiveRenderer {
+
+    private static final Logger log = LoggerFactory.getLogger(PostArchiveRenderer.class);
+
+    private static final String TEMPLATE = "archive";
+
+    private final PostRepository postRepository;
+    private final ITemplateEngine templateEngine;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean streaming;
+    private final int flushRows;
+
+    public PostArchiveRenderer(PostRepository postRepository, ITemplateEngine templateEngine,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${blog.archive.render:streaming}") String mode,
+                               @Value("${blog.archive.flush-rows:100}") int flushRows) {
+        this.postRepository = postRepository;
+        this.templateEngine = templateEngine;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.streaming = !"buffered".equalsIgnoreCase(mode);
+        this.flushRows = Math.max(1, flushRows);
+    }
+
+    /**
+     * Writes the archive page to the response, in the configured mode.
+     */
+    public void render(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (streaming) {
+            stream(request, response);
+        } else {
+            buffer(request, response);
+        }
+    }
+
+    /**
+     * Writes the archive page while reading the posts from a cursor.
+     */
+    public void stream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("text/html;charset=UTF-8");
+        PrintWriter writer = response.getWriter();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<PostSummary> posts = postRepository.streamArchive()) {
+                    // Rows are fetched while the template runs, so this includes reading them.
+                    long start = System.nanoTime();
+                    templateEngine.process(TEMPLATE,
+                            context(request, response, flushingEvery(flushRows, posts.iterator(), writer)), writer);
+                    RequestStatistics.recordRender(System.nanoTime() - start);
+                }
+            });
+        } catch (RuntimeException e) {
+            if (!writer.checkError()) {
+                throw e;
+            }
+            // The client went away; there is nobody left to report the error to.
+            log.debug("Archive page abandoned by the client: {}", e.toString());
+            return;
+        }
+        writer.flush();
+    }
+
+    /**
+     * Loads all posts, renders the archive page into a string and then writes it.
+     */
+    public void buffer(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        List<PostSummary> posts = readOnlyTransaction.execute(status -> {
+            try (Stream<PostSummary> stream = postRepository.streamArchive()) {
+                return stream.toList();
+            }
+        });
+        long start = System.nanoTime();
+        String html = templateEngine.process(TEMPLATE, context(request, response, posts.iterator()));
+        RequestStatistics.recordRender(System.nanoTime() - start);
+        response.setContentType("text/html;charset=UTF-8");
+        response.getWriter().write(html);
+    }
+
+    private static WebContext context(HttpServletRequest request, HttpServletResponse response,
+                                      Iterator<PostSummary> posts) {
+        return new WebContext(
+                JakartaServletWebApplication.buildApplication(request.getServletContext())
+                        .buildExchange(request, response),
+                RequestContextUtils.getLocale(request),
+                Map.of("posts", posts));
+    }
+
+    /**
+     * Wraps the iterator so that everything written so far is flushed to the client
+     * before the first element and then before every "rows"-th element. Throws once
+     * the writer reports an error, which rolls back the transaction and closes the cursor.
+     */
+    private static <T> Iterator<T> flushingEvery(int rows, Iterator<T> iterator, PrintWriter writer) {
+        return new Iterator<>() {
+            private int returned;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                // checkError() flushes too.
+                if (returned++ % rows == 0 && writer.checkError()) {
+                    throw new UncheckedIOException(new IOException("Client disconnected from the archive page"));
+                }
+                return iterator.next();
+            }
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.blogplatform.simpleblogplatform.render;
+
+import com.blogplatform.simpleblogplatform.model.Post;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.safety.Cleaner;
+import org.jsoup.safety.Safelist;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns the Markdown source of a post into the HTML that is stored with it and served as
+ * is on every view, together with a plain-text excerpt and a word count.
+ *
+ * Rendering happens once per save (and again only when the rules below change, see
+ * {@link #RULES_VERSION}), so it can afford a real Markdown parser and a real sanitizer:
+ *
+ * 1. commonmark parses the Markdown. Raw HTML in the source is kept, since posts written
+ *    before Markdown support are plain HTML (which is valid Markdown).
+ * 2. jsoup cleans the result against an allowlist: only formatting tags, links and images
+ *    survive, with no scripts, event handlers, styles or "javascript:" URLs, and every
+ *    link gets rel="nofollow noopener".
+ * 3. The excerpt and word count are taken from the text of the cleaned HTML.
+ *
+ * Instances are thread-safe.
+ */
+@Component
+public class PostContentRenderer {
+
+    /**
+     * The version of the rendering rules. Increase it whenever the parser options or the
+     * allowlist change: PostRenderJob then re-renders every stored post at startup.
+     */
+    public static final int RULES_VERSION = 1;
+
+    // Only used to decide whether a URL is safe; relative links are kept as written.
+    private static final String BASE_URI = "https://blog.invalid/";
+
+    /**
+     * The stored forms of a post's content.
+     *
+     * @param html      The sanitized HTML.
+     * @param excerpt   A plain-text preview, at most {@link Post#EXCERPT_LENGTH} characters.
+     * @param wordCount The number of words in the text.
+     */
+    public record RenderedContent(String html, String excerpt, int wordCount) {
+    }
+
+    private final Parser parser = Parser.builder().build();
+    private final HtmlRenderer htmlRenderer = HtmlRenderer.builder().build();
+    private final Safelist safelist = Safelist.relaxed()
+            .addTags("hr")
+            // Fenced code blocks carry their language as class="language-xyz".
+            .addAttributes("code", "class")
+            .addEnforcedAttribute("a", "rel", "nofollow noopener")
+            .preserveRelativeLinks(true);
+
+    /**
+     * Renders a post's Markdown source.
+     *
+     * @param source The Markdown source; may be null.
+     * @return The sanitized HTML with its excerpt and word count.
+     */
+    public RenderedContent render(String source) {
+        if (source == null || source.isBlank()) {
+            return new RenderedContent("", "", 0);
+        }
+        String html = htmlRenderer.render(parser.parse(source));
+        Document clean = new Cleaner(safelist).clean(Jsoup.parseBodyFragment(html, BASE_URI));
+        clean.outputSettings().prettyPrint(false);
+        String text = clean.body().text();
+        return new RenderedContent(clean.body().html(), excerpt(text), countWords(text));
+    }
+
+    /**
+     * Cuts the text at a word boundary so that it fits {@link Post#EXCERPT_LENGTH}.
+     */
+    static String excerpt(String text) {
+        if (text.length() <= Post.EXCERPT_LENGTH) {
+            return text;
+        }
+        // Reserve one character for the ellipsis and avoid cutting a word in half.
+        int cut = text.lastIndexOf(' ', Post.EXCERPT_LENGTH - 1);
+        if (cut <= 0) {
+            cut = Post.EXCERPT_LENGTH - 1;
+        }
+        return text.substring(0, cut) + "\u2026";
+    }
+
+    static int countWords(String text) {
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            boolean whitespace = Character.isWhitespace(text.charAt(i));
+            if (!whitespace && !inWord) {
+                words++;
+            }
+            inWord = !whitespace;
+        }
+        return words;
+    }
+}
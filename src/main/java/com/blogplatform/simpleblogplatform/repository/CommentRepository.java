@@ -1,9 +1,18 @@
 package com.blogplatform.simpleblogplatform.repository;
 
+import com.blogplatform.simpleblogplatform.dto.ExportedComment;
 import com.blogplatform.simpleblogplatform.model.Comment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * The CommentRepository interface is the data access layer for Comment entities.
  * By extending JpaRepository, it inherits a full suite of CRUD (Create, Read,
@@ -12,8 +21,34 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    // At this stage, we don't need any custom query methods.
-    // The inherited methods like save(), findById(), and deleteById() are all
-    // we need to implement the initial comment functionality.
-    // Spring Data JPA provides the implementation for us automatically.
-}
\ No newline at end of file
+
+    /**
+     * Retrieves one page of a post's comments, oldest first, together with their authors.
+     * The "join fetch" loads each comment's User in the same select, so rendering the
+     * author names does not trigger one extra query per comment (the N+1 problem).
+     * Returning a List instead of a Page means Spring Data runs no count query;
+     * the total comes from the post's stored comment count instead.
+     *
+     * @param postId   The ID of the post whose comments are requested.
+     * @param pageable The page number and size to load.
+     * @return The comments on the requested page, with their authors already initialized.
+     */
+    @Query("select c from Comment c join fetch c.user " +
+            "where c.post.id = :postId order by c.createdAt asc, c.id asc")
+    List<Comment> findPageByPostId(Long postId, Pageable pageable);
+
+    /**
+     * Streams every comment with its author's username, grouped by post in primary-key
+     * order and oldest first within a post, which is the order of
+     * idx_comment_post_created_at, so the database never has to sort. Being a projection,
+     * the rows are not managed entities. Used together with
+     * {@link PostRepository#streamAllForExport()}; must be consumed inside a transaction.
+     *
+     * @return All comments, ordered by post ID, creation time and ID.
+     */
+    @Query("select new com.blogplatform.simpleblogplatform.dto.ExportedComment(" +
+            "c.post.id, u.username, c.content, c.createdAt) " +
+            "from Comment c left join c.user u order by c.post.id, c.createdAt, c.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = PostRepository.EXPORT_FETCH_SIZE))
+    Stream<ExportedComment> streamAllForExport();
+}
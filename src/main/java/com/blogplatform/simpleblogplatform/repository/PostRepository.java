@@ -1,17 +1,241 @@
 package com.blogplatform.simpleblogplatform.repository;
 
+import com.blogplatform.simpleblogplatform.dto.FeedEntry;
+import com.blogplatform.simpleblogplatform.dto.PostSearchDocument;
+import com.blogplatform.simpleblogplatform.dto.PostSummary;
+import com.blogplatform.simpleblogplatform.dto.PostTitle;
+import com.blogplatform.simpleblogplatform.dto.PostValidator;
 import com.blogplatform.simpleblogplatform.model.Post;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * The PostRepository interface provides a way to perform CRUD operations on Post entities.
  * By extending JpaRepository, we get a lot of standard data access methods for free,
  * without needing to write any implementation code.
  */
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long> {
-    // That's it!
-    // Spring Data JPA will automatically provide an implementation of this interface at runtime.
-    // We can add custom query methods here later if needed, simply by declaring their signatures.
-}
\ No newline at end of file
+public interface PostRepository extends JpaRepository<Post, Long>, PostRepositoryCustom {
+
+    /**
+     * Loads only the HTTP cache validators of a post (version and timestamps).
+     * This is a single primary-key lookup that never reads the content column, so
+     * answering a conditional GET with 304 Not Modified stays cheap.
+     *
+     * @param id The ID of the post.
+     * @return The validators, or empty if the post does not exist.
+     */
+    @Query("select new com.blogplatform.simpleblogplatform.dto.PostValidator(" +
+            "p.id, p.version, p.createdAt, p.updatedAt, p.lastCommentAt) from Post p where p.id = :id")
+    Optional<PostValidator> findValidatorById(Long id);
+
+    // --- Keyset (cursor) pagination for the home feed ---
+    // The feed is ordered by (createdAt, id) descending. Instead of an OFFSET, each
+    // page starts right after the boundary row of the previous one, so the database
+    // only ever reads "limit" rows no matter how deep into the feed we are.
+    //
+    // The feed queries return PostSummary projections rather than Post entities:
+    // one joined select fills the title, stored excerpt, author name and the stored
+    // comment count, without loading article bodies, counting comment rows or
+    // triggering per-row author selects.
+    //
+    // The cursor conditions are written as "createdAt <= x and (createdAt < x or id < y)"
+    // rather than the equivalent "createdAt < x or (createdAt = x and id < y)": the outer
+    // range lets the database start reading idx_post_created_at_id right at the cursor,
+    // whereas the OR form makes it walk the index from the top and filter every row.
+
+    String SUMMARY_SELECT = "select new com.blogplatform.simpleblogplatform.dto.PostSummary(" +
+            "p.id, p.title, p.createdAt, u.username, p.excerpt, " +
+            "p.commentCount, p.viewCount) " +
+            "from Post p left join p.user u ";
+
+    /**
+     * Retrieves the newest posts, used for the first page of the feed.
+     *
+     * @param limit The maximum number of posts to return.
+     * @return The newest posts, newest first.
+     */
+    @Query(SUMMARY_SELECT + "order by p.createdAt desc, p.id desc")
+    List<PostSummary> findNewest(Limit limit);
+
+    /**
+     * Retrieves the posts that come strictly after the given cursor in feed order,
+     * i.e. the next older page.
+     *
+     * @param createdAt The creation timestamp of the cursor post.
+     * @param id        The id of the cursor post.
+     * @param limit     The maximum number of posts to return.
+     * @return Posts older than the cursor, newest first.
+     */
+    @Query(SUMMARY_SELECT +
+            "where p.createdAt <= :createdAt and (p.createdAt < :createdAt or p.id < :id) " +
+            "order by p.createdAt desc, p.id desc")
+    List<PostSummary> findOlderThan(LocalDateTime createdAt, Long id, Limit limit);
+
+    /**
+     * Retrieves the posts that come strictly before the given cursor in feed order,
+     * i.e. the previous (newer) page. Rows are returned oldest first so that the
+     * limit keeps the ones closest to the cursor; callers reverse them for display.
+     *
+     * @param createdAt The creation timestamp of the cursor post.
+     * @param id        The id of the cursor post.
+     * @param limit     The maximum number of posts to return.
+     * @return Posts newer than the cursor, oldest first.
+     */
+    @Query(SUMMARY_SELECT +
+            "where p.createdAt >= :createdAt and (p.createdAt > :createdAt or p.id > :id) " +
+            "order by p.createdAt asc, p.id asc")
+    List<PostSummary> findNewerThan(LocalDateTime createdAt, Long id, Limit limit);
+
+    /**
+     * Retrieves the most viewed posts.
+     *
+     * @param limit The maximum number of posts to return.
+     * @return The posts with the highest view counts, most viewed first.
+     */
+    @Query(SUMMARY_SELECT + "order by p.viewCount desc, p.id desc")
+    List<PostSummary> findMostViewed(Limit limit);
+
+    /**
+     * Streams the summaries of all posts in feed order, for the archive page. The
+     * database walks idx_post_created_at_id in order, so the first rows are available
+     * at once and the rest are fetched in batches while the page is being written.
+     * Must be consumed inside a transaction.
+     *
+     * @return All posts, newest first.
+     */
+    @Query(SUMMARY_SELECT + "order by p.createdAt desc, p.id desc")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    Stream<PostSummary> streamArchive();
+
+    // --- Syndication (Atom feed and sitemap) ---
+
+    String FEED_ENTRY_SELECT = "select new com.blogplatform.simpleblogplatform.dto.FeedEntry(" +
+            "p.id, p.title, u.username, p.excerpt, p.createdAt, p.updatedAt) " +
+            "from Post p left join p.user u ";
+
+    /**
+     * Retrieves the newest posts for the Atom feed.
+     *
+     * @param limit The maximum number of posts to return.
+     * @return The newest posts, newest first.
+     */
+    @Query(FEED_ENTRY_SELECT + "order by p.createdAt desc, p.id desc")
+    List<FeedEntry> findNewestFeedEntries(Limit limit);
+
+    /**
+     * Retrieves a single post for the Atom feed.
+     *
+     * @param id The ID of the post.
+     * @return The feed entry, or empty if the post does not exist.
+     */
+    @Query(FEED_ENTRY_SELECT + "where p.id = :id")
+    Optional<FeedEntry> findFeedEntryById(Long id);
+
+    /**
+     * Retrieves the highest post ID, which bounds the number of sitemap files.
+     *
+     * @return The highest ID, or null if there are no posts.
+     */
+    @Query("select max(p.id) from Post p")
+    Long findMaxId();
+
+    /**
+     * Streams the validators (and so the last modification time) of the posts whose ID
+     * lies in [fromId, toId), in primary-key order, for one sitemap file. Must be
+     * consumed inside a transaction.
+     *
+     * @param fromId The lowest ID included.
+     * @param toId   The lowest ID no longer included.
+     * @return The posts' validators, ordered by ID.
+     */
+    @Query("select new com.blogplatform.simpleblogplatform.dto.PostValidator(" +
+            "p.id, p.version, p.createdAt, p.updatedAt, p.lastCommentAt) from Post p " +
+            "where p.id >= :fromId and p.id < :toId order by p.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    Stream<PostValidator> streamValidatorsForSitemap(Long fromId, Long toId);
+
+    /**
+     * Retrieves the summaries of the given posts, in no particular order.
+     * Used to display search hits, whose ranking comes from the search index.
+     *
+     * @param ids The IDs of the posts to load.
+     * @return The summaries of the posts that still exist.
+     */
+    @Query(SUMMARY_SELECT + "where p.id in :ids")
+    List<PostSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    /**
+     * Retrieves the searchable text of posts in primary-key order, starting after the
+     * given id. Used to (re)build the in-memory search index in chunks.
+     *
+     * @param afterId Only posts with a greater id are returned.
+     * @param limit   The maximum number of posts to return.
+     * @return The posts' id, title and content.
+     */
+    @Query("select new com.blogplatform.simpleblogplatform.dto.PostSearchDocument(p.id, p.title, p.content) " +
+            "from Post p where p.id > :afterId order by p.id")
+    List<PostSearchDocument> findSearchDocumentsAfter(Long afterId, Limit limit);
+
+    /**
+     * Retrieves the searchable text of a single post.
+     *
+     * @param id The ID of the post.
+     * @return The post's id, title and content, or empty if it does not exist.
+     */
+    @Query("select new com.blogplatform.simpleblogplatform.dto.PostSearchDocument(p.id, p.title, p.content) " +
+            "from Post p where p.id = :id")
+    Optional<PostSearchDocument> findSearchDocumentById(Long id);
+
+    /**
+     * Retrieves the title of every post. Used to build the in-memory title suggester.
+     *
+     * @return The id, title and creation time of all posts.
+     */
+    @Query("select new com.blogplatform.simpleblogplatform.dto.PostTitle(p.id, p.title, p.createdAt) from Post p")
+    List<PostTitle> findAllTitles();
+
+    /**
+     * Retrieves the title of a single post.
+     *
+     * @param id The ID of the post.
+     * @return The post's id, title and creation time, or empty if it does not exist.
+     */
+    @Query("select new com.blogplatform.simpleblogplatform.dto.PostTitle(p.id, p.title, p.createdAt) " +
+            "from Post p where p.id = :id")
+    Optional<PostTitle> findTitleById(Long id);
+
+    /**
+     * Rows fetched from the database per round trip by the export cursors, so a full
+     * export neither loads the whole result at once nor pays one round trip per row.
+     */
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Streams every post with its author, in primary-key order, through a forward-only
+     * cursor. The entities are read-only (no dirty checking snapshots) and bypass the
+     * second-level cache, so an export does not push the popular posts out of it.
+     * Must be consumed inside a transaction; the caller is expected to clear the
+     * persistence context periodically so that the streamed posts can be garbage collected.
+     *
+     * @return All posts, ordered by ID.
+     */
+    @Query("select p from Post p left join fetch p.user order by p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Post> streamAllForExport();
+}
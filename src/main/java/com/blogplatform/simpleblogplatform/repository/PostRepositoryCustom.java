@@ -0,0 +1,57 @@
+package com.blogplatform.simpleblogplatform.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Custom write operations on posts that bypass the entity lifecycle.
+ * Spring Data merges these into PostRepository; the implementation lives in
+ * PostRepositoryCustomImpl.
+ */
+public interface PostRepositoryCustom {
+
+    /**
+     * Records that a comment was added to a post, by updating only its lastCommentAt and
+     * commentCount columns. The count is incremented by the database itself, so concurrent
+     * comments can never overwrite each other's increment.
+     * Unlike saving the entity, this does not increment the post's version, so concurrent
+     * comments never fail with an optimistic-locking conflict. Unlike a JPQL bulk update,
+     * it evicts only this one post from the second-level cache instead of the whole region.
+     * Must be called inside a transaction.
+     *
+     * @param postId      The ID of the commented post.
+     * @param commentedAt The time of the comment.
+     */
+    void recordComment(Long postId, LocalDateTime commentedAt);
+
+    /**
+     * Records that several comments were added to a post at once, with a single update.
+     * Must be called inside a transaction.
+     *
+     * @param postId      The ID of the commented post.
+     * @param count       The number of comments added.
+     * @param commentedAt The time of the latest of them.
+     */
+    void recordComments(Long postId, int count, LocalDateTime commentedAt);
+
+    /**
+     * Records that a comment was removed from a post: decrements its commentCount and
+     * moves lastCommentAt forward, so the post page's validators change. Must be called
+     * inside a transaction.
+     *
+     * @param postId    The ID of the post.
+     * @param removedAt The time of the removal.
+     */
+    void recordCommentRemoved(Long postId, LocalDateTime removedAt);
+
+    /**
+     * Recomputes every post's commentCount from the comment table and fixes the ones that
+     * are wrong, e.g. after comments were deleted directly in the database. The database
+     * compares and corrects the counts itself, one range of post IDs at a time, so memory
+     * use does not grow with the number of posts. Corrected posts get a new version, like
+     * any other change, so cached pages and ETags of the old count are not reused.
+     *
+     * @return The IDs of the posts whose count was corrected.
+     */
+    List<Long> repairCommentCounts();
+}
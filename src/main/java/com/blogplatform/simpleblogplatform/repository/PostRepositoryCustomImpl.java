@@ -0,0 +1,105 @@
+package com.blogplatform.simpleblogplatform.repository;
+
+import com.blogplatform.simpleblogplatform.model.Post;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link PostRepositoryCustom}, picked up by Spring Data through
+ * the "Impl" naming convention. The JdbcTemplate joins the surrounding JPA transaction.
+ */
+class PostRepositoryCustomImpl implements PostRepositoryCustom {
+
+    // Posts per ID range checked by one statement of the comment count repair.
+    static final int REPAIR_CHUNK_SIZE = 1000;
+
+    // A post's real comment count, for the statements below that alias post as "p".
+    private static final String REAL_COMMENT_COUNT = "(select count(*) from comment c where c.post_id = p.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    PostRepositoryCustomImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void recordComment(Long postId, LocalDateTime commentedAt) {
+        recordComments(postId, 1, commentedAt);
+    }
+
+    @Override
+    public void recordComments(Long postId, int count, LocalDateTime commentedAt) {
+        jdbcTemplate.update("update post set last_comment_at = ?, comment_count = comment_count + ? where id = ?",
+                commentedAt, count, postId);
+        evictAfterCompletion(postId);
+    }
+
+    @Override
+    public void recordCommentRemoved(Long postId, LocalDateTime removedAt) {
+        jdbcTemplate.update("update post set last_comment_at = ?, comment_count = comment_count - 1 " +
+                "where id = ? and comment_count > 0", removedAt, postId);
+        evictAfterCompletion(postId);
+    }
+
+    @Override
+    public List<Long> repairCommentCounts() {
+        Map<String, Object> range = jdbcTemplate.queryForMap("select min(id) as low, max(id) as high from post");
+        if (range.get("low") == null) {
+            return List.of();
+        }
+        long low = ((Number) range.get("low")).longValue();
+        long high = ((Number) range.get("high")).longValue();
+
+        List<Long> repaired = new ArrayList<>();
+        for (long from = low; from <= high; from += REPAIR_CHUNK_SIZE) {
+            long to = Math.min(high, from + REPAIR_CHUNK_SIZE - 1);
+            // Step 1: Find the wrong counts of one ID range; the database counts each post's
+            // comments through the comment.post_id index, so nothing is held in memory.
+            List<Long> wrong = jdbcTemplate.queryForList("select p.id from post p where p.id between ? and ? " +
+                    "and p.comment_count <> " + REAL_COMMENT_COUNT, Long.class, from, to);
+            if (wrong.isEmpty()) {
+                continue;
+            }
+            // Step 2: Correct them, counting again in the same statement, so a comment added
+            // since step 1 is included (or the post skipped if its count is right by now).
+            // The version is bumped, as for any other change to the post, so the post's page
+            // gets a new ETag instead of being answered with 304 and the old count.
+            List<Object[]> batch = wrong.stream().map(postId -> new Object[]{postId}).toList();
+            int[] updated = jdbcTemplate.batchUpdate("update post p set comment_count = " + REAL_COMMENT_COUNT +
+                    ", version = version + 1 where p.id = ? and p.comment_count <> " + REAL_COMMENT_COUNT, batch);
+            for (int i = 0; i < updated.length; i++) {
+                // Some drivers report SUCCESS_NO_INFO (-2) instead of a row count for batches.
+                if (updated[i] != 0) {
+                    repaired.add(wrong.get(i));
+                    evictAfterCompletion(wrong.get(i));
+                }
+            }
+        }
+        return repaired;
+    }
+
+    /**
+     * Evicts the post from the second-level cache now and again once the transaction ends,
+     * so that a copy re-cached by a concurrent reader before our commit does not survive.
+     */
+    private void evictAfterCompletion(Long postId) {
+        entityManagerFactory.getCache().evict(Post.class, postId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entityManagerFactory.getCache().evict(Post.class, postId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.blogplatform.simpleblogplatform.repository;
+
+import com.blogplatform.simpleblogplatform.model.User;
+
+import java.util.Optional;
+
+/**
+ * Custom query methods for User entities that cannot be expressed as derived queries.
+ * Spring Data merges these into UserRepository; the implementation lives in
+ * UserRepositoryCustomImpl.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Finds a user by their username.
+     * The lookup goes through Hibernate's natural-id API, so both the username -> id
+     * resolution and the User entity itself are served from the second-level cache
+     * when present.
+     *
+     * @param username The username to search for.
+     * @return An Optional<User> which will contain the User if found, or be empty otherwise.
+     */
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,27 @@
+package com.blogplatform.simpleblogplatform.repository;
+
+import com.blogplatform.simpleblogplatform.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Implementation of {@link UserRepositoryCustom}, picked up by Spring Data through
+ * the "Impl" naming convention.
+ */
+@Transactional(readOnly = true)
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
@@ -0,0 +1,480 @@
+package com.blogplatform.simpleblogplatform.search;
+
+import com.blogplatform.simpleblogplatform.dto.PostSearchDocument;
+import com.blogplatform.simpleblogplatform.event.PostChangedEvent;
+import com.blogplatform.simpleblogplatform.event.PostsImportedEvent;
+import com.blogplatform.simpleblogplatform.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-process inverted index over post titles and content, ranked with BM25.
+ *
+ * Each indexed post gets an internal int document number. For every term the index keeps
+ * a posting list of (document number, term frequency) pairs in two primitive int arrays,
+ * so a query only walks the lists of its own terms and never touches the database.
+ * Title terms count {@value #TITLE_WEIGHT} times, which ranks title matches higher.
+ *
+ * The index is rebuilt from the database at startup (tokenization runs in parallel across
+ * cores) and then kept up to date incrementally from {@link PostChangedEvent}s. Removed or
+ * replaced documents are only marked deleted; once they make up a quarter of the index
+ * their postings are purged in bulk and the live documents are renumbered from zero, so
+ * the per-document arrays (and the score array of every query) stay proportional to the
+ * number of posts rather than to the number of saves.
+ */
+@Component
+public class PostSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PostSearchIndex.class);
+
+    static final int TITLE_WEIGHT = 3;
+
+    // Standard BM25 parameters: term-frequency saturation and length normalization.
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final PostRepository postRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexData data = new IndexData(); // guarded by lock
+
+    // Posts changed while a rebuild is reading the database are re-indexed after the swap.
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Queue<Long> changedDuringRebuild = new ConcurrentLinkedQueue<>();
+
+    public PostSearchIndex(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    /**
+     * Runs a ranked full-text query.
+     *
+     * @param query The user's query; every term is optional (OR semantics), more matching
+     *              terms simply score higher.
+     * @param page  The zero-based page of hits; a page past the last hit is empty.
+     * @param size  The number of hits per page.
+     * @return The requested page of hits, best first.
+     * @throws IllegalArgumentException If the page is negative.
+     */
+    public SearchResults search(String query, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Negative search page: " + page);
+        }
+        size = Math.max(1, size);
+        List<String> terms = List.copyOf(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        if (terms.isEmpty()) {
+            return SearchResults.empty(page, size);
+        }
+
+        lock.readLock().lock();
+        try {
+            IndexData index = data;
+            if (index.liveDocs == 0) {
+                return SearchResults.empty(page, size);
+            }
+            float averageLength = (float) index.totalLength / index.liveDocs;
+            float[] scores = new float[index.docCount];
+            int[] matched = new int[16];
+            int matchCount = 0;
+
+            for (String term : terms) {
+                PostingList postings = index.postings.get(term);
+                if (postings == null) {
+                    continue;
+                }
+                int df = postings.size;
+                float idf = (float) Math.log(1 + (index.liveDocs - df + 0.5) / (df + 0.5));
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    if (index.deleted.get(doc)) {
+                        continue;
+                    }
+                    int tf = postings.freqs[i];
+                    float norm = K1 * (1 - B + B * index.docLengths[doc] / averageLength);
+                    if (scores[doc] == 0) {
+                        if (matchCount == matched.length) {
+                            matched = Arrays.copyOf(matched, matchCount * 2);
+                        }
+                        matched[matchCount++] = doc;
+                    }
+                    scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+
+            // In long arithmetic: a large page number must not overflow into a negative size.
+            long from = (long) page * size;
+            if (from >= matchCount) {
+                return new SearchResults(List.of(), matchCount, page, size);
+            }
+            int to = (int) Math.min(matchCount, from + size);
+            long[] top = topHits(scores, matched, matchCount, to);
+            Long[] ids = new Long[to - (int) from];
+            for (int i = (int) from; i < to; i++) {
+                ids[i - (int) from] = index.docPostIds[(int) top[i]];
+            }
+            return new SearchResults(List.of(ids), matchCount, page, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Selects the best {@code k} documents with a bounded min-heap of primitive longs.
+     * Each heap entry packs the (always positive) score's float bits into the high half
+     * and the document number into the low half, so comparing longs compares scores, and
+     * newer documents win ties.
+     *
+     * @return The document numbers of the best hits, best first.
+     */
+    private static long[] topHits(float[] scores, int[] matched, int matchCount, int k) {
+        k = Math.min(k, matchCount);
+        long[] heap = new long[k];
+        int heapSize = 0;
+        for (int i = 0; i < matchCount; i++) {
+            int doc = matched[i];
+            long key = ((long) Float.floatToIntBits(scores[doc]) << 32) | doc;
+            if (heapSize < k) {
+                heap[heapSize] = key;
+                siftUp(heap, heapSize++);
+            } else if (k > 0 && key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, heapSize);
+            }
+        }
+        Arrays.sort(heap, 0, heapSize);
+        long[] docs = new long[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            docs[i] = heap[heapSize - 1 - i] & 0xFFFFFFFFL;
+        }
+        return docs;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= heap[index]) {
+                return;
+            }
+            long tmp = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = tmp;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = (left + 1 < size && heap[left + 1] < heap[left]) ? left + 1 : left;
+            if (heap[index] <= heap[smallest]) {
+                return;
+            }
+            long tmp = heap[index];
+            heap[index] = heap[smallest];
+            heap[smallest] = tmp;
+            index = smallest;
+        }
+    }
+
+    /**
+     * Adds or replaces a post in the index.
+     */
+    public void index(PostSearchDocument document) {
+        AnalyzedDocument analyzed = analyze(document);
+        lock.writeLock().lock();
+        try {
+            data.add(analyzed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a post from the index.
+     */
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            data.remove(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of posts currently searchable.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return data.liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of document numbers in use, including deleted documents that have
+     * not been purged yet (used by tests).
+     */
+    int documentSlots() {
+        lock.readLock().lock();
+        try {
+            return data.docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps the index in sync once a post change has been committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.change() == PostChangedEvent.Change.COMMENTED) {
+            return;
+        }
+        if (rebuilding.get()) {
+            changedDuringRebuild.add(event.postId());
+        }
+        reindex(event.postId());
+    }
+
+    private void reindex(Long postId) {
+        postRepository.findSearchDocumentById(postId)
+                .ifPresentOrElse(this::index, () -> remove(postId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Imported posts do not come with one change event each, so the index is rebuilt.
+     */
+    @EventListener(PostsImportedEvent.class)
+    public void rebuildAfterImport() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the whole index from the database and swaps it in atomically.
+     * Posts are read in primary-key chunks; each chunk is tokenized on the common
+     * fork-join pool while the next one is being read, and the analyzed chunks are
+     * merged into the new index in order. Searches keep using the old index meanwhile.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            changedDuringRebuild.clear();
+            IndexData fresh = new IndexData();
+            Deque<CompletableFuture<List<AnalyzedDocument>>> pending = new ArrayDeque<>();
+            int parallelism = ForkJoinPool.getCommonPoolParallelism();
+
+            long lastId = 0;
+            List<PostSearchDocument> chunk;
+            do {
+                chunk = postRepository.findSearchDocumentsAfter(lastId, Limit.of(REBUILD_CHUNK_SIZE));
+                if (!chunk.isEmpty()) {
+                    lastId = chunk.get(chunk.size() - 1).id();
+                    List<PostSearchDocument> documents = chunk;
+                    pending.add(CompletableFuture.supplyAsync(
+                            () -> documents.stream().map(PostSearchIndex::analyze).toList()));
+                }
+                // Merge finished chunks so that at most ~one chunk per core is held in memory.
+                while (pending.size() > parallelism) {
+                    pending.poll().join().forEach(fresh::add);
+                }
+            } while (chunk.size() == REBUILD_CHUNK_SIZE);
+            while (!pending.isEmpty()) {
+                pending.poll().join().forEach(fresh::add);
+            }
+            fresh.purgeDeleted();
+
+            lock.writeLock().lock();
+            try {
+                data = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuilding.set(false);
+
+            // Changes committed while we were reading may be missing from the new index.
+            Long postId;
+            while ((postId = changedDuringRebuild.poll()) != null) {
+                reindex(postId);
+            }
+            log.info("Search index rebuilt: {} posts, {} terms in {} ms",
+                    fresh.liveDocs, fresh.postings.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    static AnalyzedDocument analyze(PostSearchDocument document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String term : Tokenizer.tokenize(document.title())) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String term : Tokenizer.tokenize(document.content())) {
+            frequencies.merge(term, 1, Integer::sum);
+            length++;
+        }
+        String[] terms = new String[frequencies.size()];
+        int[] freqs = new int[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            terms[i] = entry.getKey();
+            freqs[i++] = entry.getValue();
+        }
+        return new AnalyzedDocument(document.id(), terms, freqs, length);
+    }
+
+    record AnalyzedDocument(long postId, String[] terms, int[] freqs, int length) {
+    }
+
+    /**
+     * A growable pair of primitive arrays: document numbers (ascending) and term frequencies.
+     */
+    static final class PostingList {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size++] = freq;
+        }
+
+        void removeDeleted(BitSet deleted) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!deleted.get(docs[i])) {
+                    docs[kept] = docs[i];
+                    freqs[kept++] = freqs[i];
+                }
+            }
+            size = kept;
+        }
+    }
+
+    /**
+     * The mutable state of one index generation. Not thread-safe; guarded by the outer lock.
+     */
+    static final class IndexData {
+        final Map<String, PostingList> postings = new HashMap<>();
+        final Map<Long, Integer> docByPostId = new HashMap<>();
+        final BitSet deleted = new BitSet();
+        long[] docPostIds = new long[1024];
+        int[] docLengths = new int[1024];
+        int docCount;
+        int liveDocs;
+        int deletedDocs;
+        long totalLength;
+
+        void add(AnalyzedDocument document) {
+            remove(document.postId());
+            if (docCount == docPostIds.length) {
+                docPostIds = Arrays.copyOf(docPostIds, docCount * 2);
+                docLengths = Arrays.copyOf(docLengths, docCount * 2);
+            }
+            int doc = docCount++;
+            docPostIds[doc] = document.postId();
+            docLengths[doc] = document.length();
+            docByPostId.put(document.postId(), doc);
+            for (int i = 0; i < document.terms().length; i++) {
+                postings.computeIfAbsent(document.terms()[i], term -> new PostingList())
+                        .add(doc, document.freqs()[i]);
+            }
+            liveDocs++;
+            totalLength += document.length();
+        }
+
+        void remove(long postId) {
+            Integer doc = docByPostId.remove(postId);
+            if (doc == null) {
+                return;
+            }
+            deleted.set(doc);
+            liveDocs--;
+            deletedDocs++;
+            totalLength -= docLengths[doc];
+            if (deletedDocs > 64 && deletedDocs * 4 > liveDocs + deletedDocs) {
+                purgeDeleted();
+            }
+        }
+
+        /**
+         * Drops the postings of deleted documents and renumbers the live ones to
+         * 0..liveDocs-1, keeping their order, so posting lists stay sorted.
+         */
+        void purgeDeleted() {
+            if (deletedDocs == 0) {
+                return;
+            }
+            int[] renumbered = new int[docCount];
+            int live = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                if (!deleted.get(doc)) {
+                    renumbered[doc] = live;
+                    docPostIds[live] = docPostIds[doc];
+                    docLengths[live] = docLengths[doc];
+                    live++;
+                }
+            }
+            postings.values().removeIf(list -> {
+                list.removeDeleted(deleted);
+                for (int i = 0; i < list.size; i++) {
+                    list.docs[i] = renumbered[list.docs[i]];
+                }
+                return list.size == 0;
+            });
+            docByPostId.replaceAll((postId, doc) -> renumbered[doc]);
+            int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, live)) * 2);
+            if (capacity < docPostIds.length) {
+                docPostIds = Arrays.copyOf(docPostIds, capacity);
+                docLengths = Arrays.copyOf(docLengths, capacity);
+            }
+            docCount = live;
+            deleted.clear();
+            deletedDocs = 0;
+        }
+    }
+}
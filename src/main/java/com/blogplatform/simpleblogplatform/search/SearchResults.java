@@ -0,0 +1,26 @@
+package com.blogplatform.simpleblogplatform.search;
+
+import java.util.List;
+
+/**
+ * One page of full-text search hits.
+ *
+ * @param postIds   The IDs of the matching posts on this page, best match first.
+ * @param totalHits The total number of matching posts.
+ * @param page      The zero-based page number.
+ * @param size      The page size.
+ */
+public record SearchResults(List<Long> postIds, int totalHits, int page, int size) {
+
+    public static SearchResults empty(int page, int size) {
+        return new SearchResults(List.of(), 0, page, size);
+    }
+
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+
+    public boolean hasNext() {
+        return (long) (page + 1) * size < totalHits;
+    }
+}
@@ -0,0 +1,57 @@
+package com.blogplatform.simpleblogplatform.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits post text into normalized search terms.
+ * Markup is stripped, text is lower-cased, and words are split on anything that is
+ * not a letter or digit. Very short words and common English stop words are dropped
+ * because they match almost every post and only add noise to the ranking.
+ */
+public final class Tokenizer {
+
+    private static final Pattern TAGS = Pattern.compile("<[^>]*>");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into",
+            "is", "it", "no", "not", "of", "on", "or", "such", "that", "the", "their", "then",
+            "there", "these", "they", "this", "to", "was", "will", "with");
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Tokenizes the given text.
+     *
+     * @param text The text to tokenize; may contain HTML and may be null.
+     * @return The terms in order of appearance, duplicates included.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String plain = TAGS.matcher(text).replaceAll(" ").toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= plain.length(); i++) {
+            boolean wordChar = i < plain.length() && Character.isLetterOrDigit(plain.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addTerm(terms, plain.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(List<String> terms, String term) {
+        if (term.length() > 1 && !STOP_WORDS.contains(term)) {
+            terms.add(term);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.blogplatform.simpleblogplatform.security;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+
+import java.io.IOException;
+
+/**
+ * Login failure handler that answers "password hashing is saturated" with
+ * 503 Service Unavailable and a Retry-After header, and every other failure
+ * (bad credentials and so on) with the usual redirect to "/login?error".
+ */
+public class PasswordHashingAwareFailureHandler implements AuthenticationFailureHandler {
+
+    private final SimpleUrlAuthenticationFailureHandler defaultHandler = new SimpleUrlAuthenticationFailureHandler("/login?error");
+
+    public PasswordHashingAwareFailureHandler() {
+        // The login page only looks at the "error" parameter, so there is no need to create
+        // an HttpSession just to remember the exception (the stateless mode has none).
+        defaultHandler.setAllowSessionCreation(false);
+    }
+
+    @Override
+    public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+                                        AuthenticationException exception) throws IOException, ServletException {
+        if (exception instanceof PasswordHashingRejectedException) {
+            // Written directly rather than with sendError(): the error page would be
+            // dispatched through the security filters again and turned into a redirect.
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write(exception.getMessage());
+            return;
+        }
+        defaultHandler.onAuthenticationFailure(request, response, exception);
+    }
+}
@@ -0,0 +1,15 @@
+package com.blogplatform.simpleblogplatform.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Thrown when password hashing is saturated and a new hash or verification cannot even
+ * be queued. It is an AuthenticationException, so during form login it reaches the
+ * login failure handler (which answers 503) instead of failing the request with a 500.
+ */
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+
+    public PasswordHashingRejectedException() {
+        super("The server is busy verifying passwords; please try again in a moment");
+    }
+}
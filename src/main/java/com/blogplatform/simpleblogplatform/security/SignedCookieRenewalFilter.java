@@ -0,0 +1,67 @@
+package com.blogplatform.simpleblogplatform.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Re-issues the signed authentication cookie once half of its lifetime has passed, so an
+ * active user stays logged in while an idle one is logged out when the cookie expires.
+ *
+ * The new cookie is built from the current user record (through the cached
+ * UserDetailsService), not copied from the old one, so a changed role is picked up and
+ * a deleted or disabled user is logged out. The request itself continues with the
+ * refreshed authentication.
+ */
+public class SignedCookieRenewalFilter extends OncePerRequestFilter {
+
+    private final SignedCookieSecurityContextRepository repository;
+    private final UserDetailsService userDetailsService;
+    private final SecurityContextHolderStrategy contextHolderStrategy =
+            SecurityContextHolder.getContextHolderStrategy();
+
+    public SignedCookieRenewalFilter(SignedCookieSecurityContextRepository repository,
+                                     UserDetailsService userDetailsService) {
+        this.repository = repository;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SignedCookieSecurityContextRepository.Token token = repository.readToken(request);
+        if (token != null && repository.needsRenewal(token)) {
+            SecurityContext context = contextHolderStrategy.createEmptyContext();
+            UserDetails user = loadCurrentUser(token.username());
+            if (user != null && user.isEnabled() && user.isAccountNonLocked() && user.isAccountNonExpired()) {
+                context.setAuthentication(SignedCookieSecurityContextRepository.toAuthentication(
+                        new SignedCookieSecurityContextRepository.Token(
+                                user.getUsername(), List.copyOf(user.getAuthorities()), token.expiresAt())));
+                repository.saveContext(context, request, response);
+            } else {
+                repository.clear(request, response);
+            }
+            contextHolderStrategy.setContext(context);
+        }
+        chain.doFilter(request, response);
+    }
+
+    private UserDetails loadCurrentUser(String username) {
+        try {
+            return userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+}
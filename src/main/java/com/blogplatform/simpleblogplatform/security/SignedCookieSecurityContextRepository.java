@@ -0,0 +1,260 @@
+package com.blogplatform.simpleblogplatform.security;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the logged-in user in a signed cookie instead of the HttpSession, so that the
+ * server holds no per-user state and any node can serve any request.
+ *
+ * The cookie value is {@code base64url(username).ROLE_A,ROLE_B.expiresAt.base64url(hmac)},
+ * where the HMAC-SHA256 covers everything before the last dot. A cookie with a bad
+ * signature, an unparseable value or a past expiry time is treated as absent, so the
+ * request is anonymous. A typical cookie is about 90 bytes.
+ *
+ * The cookie only proves who logged in and with which role; it cannot be revoked before
+ * it expires. SignedCookieRenewalFilter therefore re-issues it from the current user
+ * record once half of its lifetime has passed, which also applies role changes and
+ * deletions within that half-lifetime.
+ */
+public class SignedCookieSecurityContextRepository implements SecurityContextRepository {
+
+    public static final String COOKIE_NAME = "BLOG_AUTH";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration maxAge;
+    private final Clock clock;
+    private final SecurityContextHolderStrategy contextHolderStrategy =
+            SecurityContextHolder.getContextHolderStrategy();
+
+    /**
+     * @param key    The HMAC key; every node must use the same one. At least 32 bytes.
+     * @param maxAge How long a cookie stays valid after it was issued.
+     * @param clock  The clock used for issuing and checking expiry times.
+     */
+    public SignedCookieSecurityContextRepository(byte[] key, Duration maxAge, Clock clock) {
+        if (key.length < 32) {
+            throw new IllegalArgumentException("The cookie signing key must be at least 32 bytes");
+        }
+        this.key = new SecretKeySpec(key.clone(), ALGORITHM);
+        this.maxAge = maxAge;
+        this.clock = clock;
+    }
+
+    /**
+     * The verified content of an authentication cookie.
+     *
+     * @param username    The logged-in user.
+     * @param authorities The user's authorities when the cookie was issued.
+     * @param expiresAt   Expiry time, in epoch seconds.
+     */
+    public record Token(String username, List<GrantedAuthority> authorities, long expiresAt) {
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+        return loadDeferredContext(requestResponseHolder.getRequest()).get();
+    }
+
+    @Override
+    public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+        // Verified on first use only, so requests that never look at the user skip the HMAC.
+        return new DeferredSecurityContext() {
+            private SecurityContext context;
+            private boolean generated;
+
+            @Override
+            public SecurityContext get() {
+                if (context == null) {
+                    context = contextHolderStrategy.createEmptyContext();
+                    Token token = readToken(request);
+                    if (token != null) {
+                        context.setAuthentication(toAuthentication(token));
+                    }
+                    generated = token == null;
+                }
+                return context;
+            }
+
+            @Override
+            public boolean isGenerated() {
+                get();
+                return generated;
+            }
+        };
+    }
+
+    /**
+     * Writes the cookie after a login, or clears it when the context no longer holds
+     * an authenticated user.
+     */
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        Authentication authentication = context.getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            if (findCookie(request) != null) {
+                writeCookie(request, response, "", Duration.ZERO);
+            }
+            return;
+        }
+        writeCookie(request, response, issue(authentication.getName(), authentication.getAuthorities()), maxAge);
+    }
+
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        return readToken(request) != null;
+    }
+
+    /**
+     * Reads and verifies the request's authentication cookie.
+     *
+     * @return The token, or null if there is no cookie or it is invalid or expired.
+     */
+    public Token readToken(HttpServletRequest request) {
+        String value = findCookie(request);
+        return value == null ? null : verify(value);
+    }
+
+    /**
+     * Whether more than half of the token's lifetime has passed.
+     */
+    public boolean needsRenewal(Token token) {
+        return token.expiresAt() - clock.instant().getEpochSecond() < maxAge.toSeconds() / 2;
+    }
+
+    /**
+     * Removes the authentication cookie from the client.
+     */
+    public void clear(HttpServletRequest request, HttpServletResponse response) {
+        writeCookie(request, response, "", Duration.ZERO);
+    }
+
+    /**
+     * Builds the authentication the rest of the application sees. The principal is a
+     * UserDetails, like after a session-based login, with the password left empty.
+     */
+    public static Authentication toAuthentication(Token token) {
+        User principal = new User(token.username(), "", token.authorities());
+        return UsernamePasswordAuthenticationToken.authenticated(principal, null, token.authorities());
+    }
+
+    String issue(String username, Collection<? extends GrantedAuthority> authorities) {
+        StringBuilder roles = new StringBuilder();
+        for (GrantedAuthority authority : authorities) {
+            if (!roles.isEmpty()) {
+                roles.append(',');
+            }
+            roles.append(authority.getAuthority());
+        }
+        long expiresAt = clock.instant().plus(maxAge).getEpochSecond();
+        String payload = ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8))
+                + '.' + roles + '.' + expiresAt;
+        return payload + '.' + ENCODER.encodeToString(sign(payload));
+    }
+
+    Token verify(String value) {
+        int lastDot = value.lastIndexOf('.');
+        if (lastDot < 0) {
+            return null;
+        }
+        String payload = value.substring(0, lastDot);
+        byte[] signature;
+        try {
+            signature = DECODER.decode(value.substring(lastDot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        // Constant-time comparison, so the signature cannot be guessed byte by byte.
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            return null;
+        }
+        String[] parts = payload.split("\\.", -1);
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            long expiresAt = Long.parseLong(parts[2]);
+            if (expiresAt <= clock.instant().getEpochSecond()) {
+                return null;
+            }
+            String username = new String(DECODER.decode(parts[0]), StandardCharsets.UTF_8);
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (String role : parts[1].split(",")) {
+                if (!role.isEmpty()) {
+                    authorities.add(new SimpleGrantedAuthority(role));
+                }
+            }
+            return new Token(username, List.copyOf(authorities), expiresAt);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            // Mac instances are not thread-safe, and creating one is cheap next to a request.
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static String findCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void writeCookie(HttpServletRequest request, HttpServletResponse response,
+                                    String value, Duration maxAge) {
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+                .path(request.getContextPath().isEmpty() ? "/" : request.getContextPath())
+                .maxAge(maxAge)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
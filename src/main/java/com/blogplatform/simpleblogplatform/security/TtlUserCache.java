@@ -0,0 +1,125 @@
+package com.blogplatform.simpleblogplatform.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, time-limited cache of loaded UserDetails, so that repeat authentications of
+ * the same user skip the database.
+ *
+ * Entries expire after "blog.user-cache.ttl-seconds"; when more than
+ * "blog.user-cache.max-entries" users are cached, the least recently used one is dropped.
+ * Spring Security erases the password of the UserDetails it authenticated, so the cache
+ * never hands out the stored instance, only fresh copies of it.
+ *
+ * Changes must call {@link #removeUserFromCache} (UserService does so when a password or
+ * role changes). A load that started before such a removal may have read the old data,
+ * so {@link #putUserInCache(UserDetails, long)} drops it instead of caching it.
+ *
+ * Metrics: blog.user.cache.requests (tagged result=hit|miss) and blog.user.cache.size.
+ */
+@Component
+public class TtlUserCache implements UserCache {
+
+    private record Entry(UserDetails user, long expiresAt) {
+    }
+
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    // Access-ordered, so iteration starts at the least recently used entry. Guarded by "this".
+    private final LinkedHashMap<String, Entry> entries;
+    // Incremented by every removal; see putUserInCache(UserDetails, long).
+    private long removals;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public TtlUserCache(MeterRegistry meterRegistry,
+                        @Value("${blog.user-cache.ttl-seconds:300}") long ttlSeconds,
+                        @Value("${blog.user-cache.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > TtlUserCache.this.maxEntries;
+            }
+        };
+        this.hits = Counter.builder("blog.user.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("blog.user.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("blog.user.cache.size", this, TtlUserCache::size).register(meterRegistry);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails user;
+        synchronized (this) {
+            Entry entry = entries.get(username);
+            if (entry != null && entry.expiresAt() - System.nanoTime() <= 0) {
+                entries.remove(username);
+                entry = null;
+            }
+            user = entry == null ? null : entry.user();
+        }
+        if (user == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copyOf(user);
+    }
+
+    /**
+     * Returns a token to pass to {@link #putUserInCache(UserDetails, long)}.
+     * Callers take it before they read the user from the database.
+     */
+    public synchronized long stamp() {
+        return removals;
+    }
+
+    /**
+     * Caches a user, unless any entry was removed since {@code stamp} was taken: the
+     * user may then have been read before a change was committed.
+     */
+    public synchronized void putUserInCache(UserDetails user, long stamp) {
+        if (stamp == removals) {
+            entries.put(user.getUsername(), new Entry(copyOf(user), System.nanoTime() + ttlNanos));
+        }
+    }
+
+    @Override
+    public synchronized void putUserInCache(UserDetails user) {
+        entries.put(user.getUsername(), new Entry(copyOf(user), System.nanoTime() + ttlNanos));
+    }
+
+    @Override
+    public synchronized void removeUserFromCache(String username) {
+        removals++;
+        entries.remove(username);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static UserDetails copyOf(UserDetails user) {
+        return User.withUsername(user.getUsername())
+                .password(user.getPassword())
+                .authorities(user.getAuthorities())
+                .accountExpired(!user.isAccountNonExpired())
+                .accountLocked(!user.isAccountNonLocked())
+                .credentialsExpired(!user.isCredentialsNonExpired())
+                .disabled(!user.isEnabled())
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.blogplatform.simpleblogplatform.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the asynchronous comment queue is full. Answered with 503 Service
+ * Unavailable, telling clients to try again later instead of piling up more work.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CommentBacklogFullException extends RuntimeException {
+
+    public CommentBacklogFullException() {
+        super("Too many comments are waiting to be saved; please try again shortly");
+    }
+}
@@ -0,0 +1,31 @@
+package com.blogplatform.simpleblogplatform.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically verifies the stored comment counts of all posts against the comment table.
+ * The counts are maintained incrementally, so this normally finds nothing to fix; it is a
+ * safety net for rows changed outside the application.
+ */
+@Component
+public class CommentCountRepairJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentCountRepairJob.class);
+
+    private final CommentService commentService;
+
+    public CommentCountRepairJob(CommentService commentService) {
+        this.commentService = commentService;
+    }
+
+    @Scheduled(cron = "${blog.comments.count-repair-cron:0 30 3 * * *}")
+    public void run() {
+        int repaired = commentService.repairCommentCounts();
+        if (repaired > 0) {
+            log.warn("Corrected the stored comment count of {} posts", repaired);
+        }
+    }
+}
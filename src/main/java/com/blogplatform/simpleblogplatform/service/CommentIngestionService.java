@@ -0,0 +1,271 @@
+package com.blogplatform.simpleblogplatform.service;
+
+import com.blogplatform.simpleblogplatform.dto.CommentDto;
+import com.blogplatform.simpleblogplatform.dto.PendingComment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts new comments from the web layer, in one of two modes (property
+ * "blog.comments.ingestion"):
+ *
+ * - sync (default): every comment is saved by {@link CommentService#saveComment} in its
+ *   own transaction before the request returns.
+ * - async: the comment is validated, put on a bounded in-memory queue and acknowledged
+ *   right away. A single writer thread drains the queue and saves up to
+ *   "blog.comments.batch-size" comments per transaction with JDBC batch inserts. When the
+ *   queue is full, submissions fail fast with {@link CommentBacklogFullException} (503).
+ *   Accepted comments that are still queued are written on a clean shutdown, but are lost
+ *   if the JVM dies, which is the price of acknowledging before the commit.
+ *
+ * Comments have already been acknowledged when the writer saves them, so a failed write
+ * is not simply given up. Temporary failures (a timeout, an exhausted connection pool, a
+ * database that is briefly down) keep the batch and retry it with exponential backoff,
+ * starting at "blog.comments.retry-backoff-ms"; meanwhile the queue fills up and new
+ * submissions get a 503. Only a comment that can never be written, such as one on a post
+ * deleted in the meantime, is dropped, and counted.
+ *
+ * Metrics: blog.comments.queue.depth, blog.comments.rejected, blog.comments.retries,
+ * blog.comments.dropped and blog.comments.batch.size.
+ */
+@Service
+public class CommentIngestionService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentIngestionService.class);
+
+    // Short enough that a retry still fits into the time stop() waits for the writer.
+    private static final long MAX_BACKOFF_MILLIS = 5_000;
+
+    private final CommentService commentService;
+    private final boolean async;
+    private final int batchSize;
+    private final BlockingQueue<PendingComment> queue;
+    private final long initialBackoffMillis;
+
+    private final Counter rejected;
+    private final Counter retries;
+    private final Counter dropped;
+    private final DistributionSummary batchSizes;
+
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    // Comments accepted but not yet written (queued or in the batch being written).
+    // Guarded by "queue", which is also used to signal awaitEmpty().
+    private int unwritten;
+
+    public CommentIngestionService(CommentService commentService, MeterRegistry meterRegistry,
+                                   @Value("${blog.comments.ingestion:sync}") String mode,
+                                   @Value("${blog.comments.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${blog.comments.batch-size:500}") int batchSize,
+                                   @Value("${blog.comments.retry-backoff-ms:100}") long initialBackoffMillis) {
+        this.commentService = commentService;
+        this.async = "async".equalsIgnoreCase(mode);
+        this.batchSize = Math.max(1, batchSize);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.initialBackoffMillis = Math.max(1, Math.min(MAX_BACKOFF_MILLIS, initialBackoffMillis));
+        this.rejected = Counter.builder("blog.comments.rejected").register(meterRegistry);
+        this.retries = Counter.builder("blog.comments.retries").register(meterRegistry);
+        this.dropped = Counter.builder("blog.comments.dropped").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("blog.comments.batch.size").register(meterRegistry);
+        Gauge.builder("blog.comments.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Submits a new comment, in the configured mode.
+     *
+     * @param postId The ID of the post to which the comment is being added.
+     * @param username The username of the author of the comment.
+     * @param commentDto The DTO containing the comment's content.
+     * @throws CommentBacklogFullException in async mode, if the queue is full.
+     */
+    public void submit(Long postId, String username, CommentDto commentDto) {
+        if (!async) {
+            commentService.saveComment(postId, username, commentDto);
+            return;
+        }
+        enqueue(commentService.validateComment(postId, username, commentDto));
+    }
+
+    /**
+     * Queues a validated comment for the background writer, without blocking.
+     *
+     * @throws CommentBacklogFullException if the queue is full or the writer is stopped.
+     */
+    public void enqueue(PendingComment comment) {
+        synchronized (queue) {
+            if (!running || !queue.offer(comment)) {
+                rejected.increment();
+                throw new CommentBacklogFullException();
+            }
+            unwritten++;
+        }
+    }
+
+    /**
+     * Waits until every comment queued so far has been written (used by benchmarks).
+     *
+     * @return false if the queue was not empty after the timeout.
+     */
+    public boolean awaitEmpty(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (queue) {
+            while (unwritten > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(queue, remaining);
+            }
+        }
+        return true;
+    }
+
+    private void drain() {
+        List<PendingComment> batch = new ArrayList<>(batchSize);
+        long backoffMillis = initialBackoffMillis;
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    PendingComment first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    batchSizes.record(batch.size());
+                }
+                write(batch);
+                backoffMillis = initialBackoffMillis;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                // Anything else, even an Error, must not end the writer: every comment
+                // queued after this batch would be lost without a trace.
+                if (!running) {
+                    log.error("Dropping {} comments at shutdown after a failed write", batch.size(), e);
+                    dropped.increment(batch.size());
+                    written(batch.size());
+                    batch.clear();
+                    continue;
+                }
+                retries.increment();
+                log.warn("Writing {} comments failed, retrying in {} ms: {}", batch.size(), backoffMillis, e.toString());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMillis = Math.min(MAX_BACKOFF_MILLIS, backoffMillis * 2);
+            }
+        }
+    }
+
+    /**
+     * Writes the batch and empties it. A temporary failure is thrown with the batch left
+     * untouched, or holding only the comments that have not been written yet.
+     */
+    private void write(List<PendingComment> batch) {
+        try {
+            commentService.saveComments(batch);
+            written(batch.size());
+            batch.clear();
+            return;
+        } catch (RuntimeException batchFailure) {
+            if (isTemporary(batchFailure)) {
+                throw batchFailure;
+            }
+        }
+        // One bad comment (e.g. on a post deleted meanwhile) must not take the others
+        // down with it: write them one by one and drop only the ones that cannot be
+        // written. Each one leaves the batch once settled, so a retry never repeats it.
+        for (Iterator<PendingComment> it = batch.iterator(); it.hasNext(); ) {
+            PendingComment comment = it.next();
+            try {
+                commentService.saveComments(List.of(comment));
+            } catch (RuntimeException e) {
+                if (isTemporary(e)) {
+                    throw e;
+                }
+                dropped.increment();
+                log.warn("Dropping comment on post {}: {}", comment.postId(), e.toString());
+            }
+            it.remove();
+            written(1);
+        }
+    }
+
+    /**
+     * Whether a failed write may succeed if it is simply tried again later. Constraint
+     * violations (such as a comment on a deleted post) and programming errors never will.
+     */
+    static boolean isTemporary(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+
+    private void written(int comments) {
+        synchronized (queue) {
+            unwritten -= comments;
+            queue.notifyAll();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!async) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("comment-writer").daemon(false).start(this::drain);
+    }
+
+    /**
+     * Stops accepting comments and waits for the writer to save everything still queued.
+     * Runs before the DataSource and the transaction manager are shut down.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!queue.isEmpty()) {
+                log.warn("{} accepted comments were not saved before shutdown", queue.size());
+            }
+            writer = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+}
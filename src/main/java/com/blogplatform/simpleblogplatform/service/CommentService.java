@@ -1,16 +1,28 @@
 package com.blogplatform.simpleblogplatform.service;
 
 import com.blogplatform.simpleblogplatform.dto.CommentDto;
+import com.blogplatform.simpleblogplatform.dto.PendingComment;
+import com.blogplatform.simpleblogplatform.event.PostChangedEvent;
 import com.blogplatform.simpleblogplatform.model.Comment;
 import com.blogplatform.simpleblogplatform.model.Post;
 import com.blogplatform.simpleblogplatform.model.User;
 import com.blogplatform.simpleblogplatform.repository.CommentRepository;
 import com.blogplatform.simpleblogplatform.repository.PostRepository;
 import com.blogplatform.simpleblogplatform.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 public class CommentService {
@@ -18,12 +30,39 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Number of comments shown per page on the post detail page (property "blog.comments.page-size").
+    private final int commentPageSize;
 
     // Inject all required repositories via the constructor
-    public CommentService(CommentRepository commentRepository, PostRepository postRepository, UserRepository userRepository) {
+    public CommentService(CommentRepository commentRepository, PostRepository postRepository, UserRepository userRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${blog.comments.page-size:20}") int commentPageSize) {
         this.commentRepository = commentRepository;
         this.postRepository = postRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.commentPageSize = Math.max(1, commentPageSize);
+    }
+
+    /**
+     * Retrieves one page of comments for a post, oldest first, with their authors
+     * loaded in the same query. The cost of a page view is therefore bounded by the
+     * page size, not by the total number of comments on the post.
+     *
+     * @param postId The ID of the post whose comments are requested.
+     * @param page   The zero-based page number; negative values are treated as 0.
+     * @return The requested page of comments.
+     */
+    @Transactional(readOnly = true)
+    public Page<Comment> findCommentPage(Long postId, int page) {
+        PageRequest pageRequest = PageRequest.of(Math.max(0, page), commentPageSize);
+        List<Comment> comments = commentRepository.findPageByPostId(postId, pageRequest);
+        // The total comes from the post's stored comment count (usually a second-level
+        // cache hit) instead of a COUNT query over the comment table.
+        long total = postRepository.findById(postId).map(Post::getCommentCount).orElse(0L);
+        return new PageImpl<>(comments, pageRequest, total);
     }
 
     /**
@@ -54,5 +93,100 @@ public class CommentService {
 
         // Step 4: Save the new comment to the database.
         commentRepository.save(comment);
+
+        // Step 5: Increment the post's comment count and stamp it with the time of its
+        // latest comment. This changes the post page's ETag/Last-Modified without
+        // bumping the post's version.
+        postRepository.recordComment(postId, comment.getCreatedAt());
+
+        // Step 6: Let in-memory copies of the post's page know that it has changed.
+        eventPublisher.publishEvent(new PostChangedEvent(postId, PostChangedEvent.Change.COMMENTED));
+    }
+
+    /**
+     * Checks that a comment can be accepted, without writing anything.
+     * Both lookups are normally answered by the second-level cache.
+     *
+     * @param postId The ID of the post to which the comment is being added.
+     * @param username The username of the author of the comment.
+     * @param commentDto The DTO containing the comment's content.
+     * @return The comment, ready to be written by {@link #saveComments}.
+     */
+    @Transactional(readOnly = true)
+    public PendingComment validateComment(Long postId, String username, CommentDto commentDto) {
+        if (!postRepository.findById(postId).isPresent()) {
+            throw new IllegalArgumentException("Post not found with ID: " + postId);
+        }
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with username: " + username));
+        return new PendingComment(postId, user.getId(), commentDto.getContent(), LocalDateTime.now());
+    }
+
+    /**
+     * Writes a batch of already validated comments in one transaction.
+     * The comments reference their post and author by ID only (no selects), their IDs come
+     * from the pooled sequence, and Hibernate sends the inserts as JDBC batches. Each post's
+     * comment count and timestamp is then updated once for the whole batch.
+     *
+     * @param comments The comments to write.
+     */
+    @Transactional
+    public void saveComments(List<PendingComment> comments) {
+        List<Comment> entities = new ArrayList<>(comments.size());
+        // Sorted by post ID, so concurrent writers always lock post rows in the same order.
+        Map<Long, Integer> countByPost = new TreeMap<>();
+        Map<Long, LocalDateTime> latestByPost = new HashMap<>();
+        for (PendingComment pending : comments) {
+            Comment comment = new Comment();
+            comment.setContent(pending.content());
+            comment.setCreatedAt(pending.createdAt());
+            comment.setPost(postRepository.getReferenceById(pending.postId()));
+            comment.setUser(userRepository.getReferenceById(pending.userId()));
+            entities.add(comment);
+            countByPost.merge(pending.postId(), 1, Integer::sum);
+            latestByPost.merge(pending.postId(), pending.createdAt(),
+                    (first, second) -> first.isAfter(second) ? first : second);
+        }
+        commentRepository.saveAll(entities);
+
+        countByPost.forEach((postId, count) -> {
+            postRepository.recordComments(postId, count, latestByPost.get(postId));
+            eventPublisher.publishEvent(new PostChangedEvent(postId, PostChangedEvent.Change.COMMENTED));
+        });
+    }
+
+    /**
+     * Deletes a comment and decrements its post's comment count in the same transaction.
+     *
+     * @param commentId The ID of the comment to delete.
+     * @return The ID of the post the comment belonged to.
+     */
+    @Transactional
+    public Long deleteComment(Long commentId) {
+        // Step 1: Fetch the comment, so we know which post it belongs to.
+        Comment comment = commentRepository.findById(commentId)
+                .orElseThrow(() -> new IllegalArgumentException("Comment not found with ID: " + commentId));
+        Long postId = comment.getPost().getId();
+
+        // Step 2: Delete it and update the post's stored count and comment timestamp.
+        commentRepository.delete(comment);
+        postRepository.recordCommentRemoved(postId, LocalDateTime.now());
+
+        // Step 3: Let in-memory copies of the post's page know that it has changed.
+        eventPublisher.publishEvent(new PostChangedEvent(postId, PostChangedEvent.Change.COMMENTED));
+        return postId;
+    }
+
+    /**
+     * Recomputes the stored comment counts of all posts and corrects the wrong ones.
+     *
+     * @return The number of posts whose count was corrected.
+     */
+    @Transactional
+    public int repairCommentCounts() {
+        List<Long> repaired = postRepository.repairCommentCounts();
+        repaired.forEach(postId ->
+                eventPublisher.publishEvent(new PostChangedEvent(postId, PostChangedEvent.Change.COMMENTED)));
+        return repaired.size();
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.blogplatform.simpleblogplatform.service;
 
 import com.blogplatform.simpleblogplatform.model.User;
 import com.blogplatform.simpleblogplatform.repository.UserRepository;
+import com.blogplatform.simpleblogplatform.security.TtlUserCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,8 +10,9 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This service is responsible for loading user-specific data.
@@ -19,32 +21,48 @@ import java.util.List;
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
+    // The authority list of each role, built once. Roles are few and never change at runtime.
+    private static final Map<String, List<GrantedAuthority>> AUTHORITIES_BY_ROLE = new ConcurrentHashMap<>();
+
     private final UserRepository userRepository;
+    private final TtlUserCache userCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, TtlUserCache userCache) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // Step 0: Repeat authentications are answered from the cache without a database
+        // lookup. UserService evicts a user as soon as their password or role changes.
+        UserDetails cached = userCache.getUserFromCache(username);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = userCache.stamp();
+
         // Step 1: Fetch our custom User entity from the database. This remains the same.
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() ->
                         new UsernameNotFoundException("User not found with username: " + username));
 
-        // --- THIS IS THE LINE TO UPDATE ---
-        // OLD (example): List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
-
-        // NEW: Dynamically create the GrantedAuthority from the user's role field.
-        // We fetch the role string from our User entity, convert it to uppercase,
-        // and prefix it with "ROLE_" to adhere to Spring Security conventions.
-        // This makes our authorization mechanism dynamic and data-driven.
-        List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().toUpperCase()));
+        // Step 2: Look up the GrantedAuthority list for the user's role. The role string
+        // is converted to uppercase and prefixed with "ROLE_" to adhere to Spring Security
+        // conventions; the resulting list is built once per role and then reused.
+        List<GrantedAuthority> authorities = authoritiesOf(user.getRole());
 
-        // Step 3: Create and return a Spring Security UserDetails object. This remains the same.
-        return new org.springframework.security.core.userdetails.User(
+        // Step 3: Create the Spring Security UserDetails object and remember it.
+        UserDetails details = new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
                 user.getPassword(),
                 authorities);
+        userCache.putUserInCache(details, stamp);
+        return details;
+    }
+
+    static List<GrantedAuthority> authoritiesOf(String role) {
+        return AUTHORITIES_BY_ROLE.computeIfAbsent(role,
+                key -> List.of(new SimpleGrantedAuthority("ROLE_" + key.toUpperCase())));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package com.blogplatform.simpleblogplatform.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an NDJSON import stops at a line that cannot be parsed or written.
+ * Answered with 400 Bad Request. The batches before the failing line stay imported;
+ * the message says how many posts that was, so the rest of the file can be resubmitted.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class PostImportException extends RuntimeException {
+
+    private final long importedPosts;
+
+    public PostImportException(String message, long importedPosts, Throwable cause) {
+        super(message + " (" + importedPosts + " posts before it were imported)", cause);
+        this.importedPosts = importedPosts;
+    }
+
+    /** The number of posts committed before the import stopped. */
+    public long getImportedPosts() {
+        return importedPosts;
+    }
+}
@@ -0,0 +1,150 @@
+package com.blogplatform.simpleblogplatform.service;
+
+import com.blogplatform.simpleblogplatform.event.PostsRenderedEvent;
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.render.PostContentRenderer;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Re-renders the stored HTML, excerpt and word count of every post that was rendered
+ * under older rules than the current {@link PostContentRenderer#RULES_VERSION}. It runs
+ * once at startup, so raising the version (after changing the Markdown options or the
+ * allowlist) is all it takes to bring every post up to date.
+ *
+ * Post pages show the stored HTML as is, so the job must finish before the first request:
+ * it runs once all beans exist but before the embedded web server starts listening, and
+ * startup fails if it fails. Posts saved before migration V4 would otherwise be served
+ * with an empty body until the job caught up.
+ *
+ * Posts are processed in chunks of "blog.render.batch-size" on "blog.render.threads"
+ * threads (0 means one per CPU core). Each chunk is read, rendered without holding a
+ * connection, and written back with one JDBC batch. A post that is saved while the job
+ * runs has already been rendered by savePost; the version check in the update leaves it
+ * alone.
+ *
+ * Every re-rendered post is evicted from the second-level cache as its chunk is written.
+ * In-memory copies elsewhere (fragment and compressed page caches, the Atom feed) are
+ * told with one {@link PostsRenderedEvent} once the whole job is done, not with an event
+ * per post: at startup that would be thousands of events for components that are about
+ * to load from the database anyway.
+ */
+@Component
+public class PostRenderJob implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(PostRenderJob.class);
+
+    private record Source(long id, long version, String content) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostContentRenderer contentRenderer;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int threads;
+    private final int batchSize;
+
+    public PostRenderJob(JdbcTemplate jdbcTemplate, PostContentRenderer contentRenderer,
+                         EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventPublisher,
+                         @Value("${blog.render.threads:0}") int threads,
+                         @Value("${blog.render.batch-size:200}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.contentRenderer = contentRenderer;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            renderStalePosts();
+        } catch (Exception e) {
+            throw new IllegalStateException("Re-rendering stale posts at startup failed", e);
+        }
+    }
+
+    /**
+     * Re-renders every post whose render version differs from the current rules.
+     *
+     * @return The number of posts re-rendered.
+     */
+    public int renderStalePosts() throws Exception {
+        long start = System.nanoTime();
+        List<Long> ids = jdbcTemplate.queryForList("select id from post where render_version <> ? order by id",
+                Long.class, PostContentRenderer.RULES_VERSION);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        int rendered = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + batchSize));
+                futures.add(executor.submit(() -> renderChunk(chunk.get(0), chunk.get(chunk.size() - 1))));
+            }
+            for (Future<Integer> future : futures) {
+                rendered += future.get();
+            }
+        }
+        if (rendered > 0) {
+            eventPublisher.publishEvent(new PostsRenderedEvent(rendered));
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Re-rendered {} posts with rendering rules version {} in {} ms on {} threads ({} posts/s)",
+                rendered, PostContentRenderer.RULES_VERSION, millis, threads, rendered * 1000L / millis);
+        return rendered;
+    }
+
+    /**
+     * Re-renders the stale posts with IDs between firstId and lastId.
+     *
+     * @return The number of posts updated.
+     */
+    private int renderChunk(long firstId, long lastId) {
+        // Step 1: Read the sources. The result is small (one chunk), and copying it out
+        // first returns the connection before the CPU-bound rendering starts.
+        List<Source> sources = jdbcTemplate.query(
+                "select id, version, content from post where id between ? and ? and render_version <> ?",
+                (rs, row) -> new Source(rs.getLong(1), rs.getLong(2), rs.getString(3)),
+                firstId, lastId, PostContentRenderer.RULES_VERSION);
+
+        // Step 2: Render.
+        List<Object[]> rows = new ArrayList<>(sources.size());
+        for (Source source : sources) {
+            PostContentRenderer.RenderedContent content = contentRenderer.render(source.content());
+            rows.add(new Object[]{content.html(), content.excerpt(), content.wordCount(),
+                    PostContentRenderer.RULES_VERSION, source.id(), source.version()});
+        }
+
+        // Step 3: Write back, unless the post was saved in the meantime. The version is
+        // incremented because the page's ETag is derived from it and the HTML has changed.
+        int[] updated = jdbcTemplate.batchUpdate("update post set content_html = ?, excerpt = ?, word_count = ?, " +
+                "render_version = ?, version = version + 1 where id = ? and version = ?", rows);
+
+        // Step 4: Drop the stale copies from the second-level cache.
+        int count = 0;
+        for (int i = 0; i < updated.length; i++) {
+            // Some drivers report SUCCESS_NO_INFO (-2) instead of a row count for batches.
+            if (updated[i] != 0) {
+                entityManagerFactory.getCache().evict(Post.class, sources.get(i).id());
+                count++;
+            }
+        }
+        return count;
+    }
+}
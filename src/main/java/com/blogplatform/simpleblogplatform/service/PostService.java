@@ -1,10 +1,23 @@
 package com.blogplatform.simpleblogplatform.service;
 
+import com.blogplatform.simpleblogplatform.dto.FeedCursor;
+import com.blogplatform.simpleblogplatform.dto.PostFeedPage;
+import com.blogplatform.simpleblogplatform.dto.PostSummary;
+import com.blogplatform.simpleblogplatform.dto.PostValidator;
+import com.blogplatform.simpleblogplatform.event.PostChangedEvent;
 import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.render.PostContentRenderer;
 import com.blogplatform.simpleblogplatform.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -15,41 +28,147 @@ import java.util.List;
 public class PostService {
 
     private final PostRepository postRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostContentRenderer contentRenderer;
 
-    public PostService(PostRepository postRepository) {
+    // Number of posts shown per page of the home feed (property "blog.feed.page-size").
+    private final int feedPageSize;
+
+    public PostService(PostRepository postRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       PostContentRenderer contentRenderer,
+                       @Value("${blog.feed.page-size:10}") int feedPageSize) {
         this.postRepository = postRepository;
+        this.eventPublisher = eventPublisher;
+        this.contentRenderer = contentRenderer;
+        this.feedPageSize = Math.max(1, feedPageSize);
     }
 
     /**
      * Retrieves all Post entities from the database.
      * @return a List of all Post objects.
      */
+    @Transactional(readOnly = true)
     public List<Post> findAllPosts() {
         return postRepository.findAll();
     }
 
+    /**
+     * Retrieves one page of the home feed using keyset pagination.
+     * At most one of the cursors should be given; if neither is, the newest page is returned.
+     * Each call reads at most page-size + 1 rows, so its cost does not depend on
+     * how many posts exist or how deep into the feed the reader has navigated.
+     *
+     * @param before Return the page of posts older than this cursor, or null.
+     * @param after  Return the page of posts newer than this cursor, or null.
+     * @return The requested page together with the cursors for its neighbours.
+     */
+    @Transactional(readOnly = true)
+    public PostFeedPage findFeedPage(FeedCursor before, FeedCursor after) {
+        // We always ask for one extra row: if it comes back, there is another page
+        // in that direction, and we never have to run a COUNT query to find out.
+        Limit limit = Limit.of(feedPageSize + 1);
+
+        if (after != null) {
+            List<PostSummary> newer = postRepository.findNewerThan(after.createdAt(), after.id(), limit);
+            if (newer.size() <= feedPageSize) {
+                // We have reached the top of the feed; show a full first page instead
+                // of a short one.
+                return findFeedPage(null, null);
+            }
+            List<PostSummary> page = new ArrayList<>(newer.subList(0, feedPageSize));
+            Collections.reverse(page);
+            return new PostFeedPage(page, cursorOf(page.get(page.size() - 1)), cursorOf(page.get(0)));
+        }
+
+        List<PostSummary> rows = before == null
+                ? postRepository.findNewest(limit)
+                : postRepository.findOlderThan(before.createdAt(), before.id(), limit);
+        boolean hasOlder = rows.size() > feedPageSize;
+        List<PostSummary> page = hasOlder ? rows.subList(0, feedPageSize) : rows;
+
+        FeedCursor olderCursor = hasOlder ? cursorOf(page.get(page.size() - 1)) : null;
+        FeedCursor newerCursor = (before != null && !page.isEmpty()) ? cursorOf(page.get(0)) : null;
+        return new PostFeedPage(page, olderCursor, newerCursor);
+    }
+
+    private static FeedCursor cursorOf(PostSummary post) {
+        return new FeedCursor(post.createdAt(), post.id());
+    }
+
     /**
      * Finds a single Post by its ID.
      * @param id The primary key of the post to find.
      * @return The found Post object.
      * @throws RuntimeException if no post is found with the given ID.
      */
+    @Transactional(readOnly = true)
     public Post findPostById(Long id) {
         return postRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
     }
 
+    /**
+     * Retrieves the most viewed posts, one feed page long.
+     * @return The summaries of the most viewed posts, most viewed first.
+     */
+    @Transactional(readOnly = true)
+    public List<PostSummary> findMostViewed() {
+        return postRepository.findMostViewed(Limit.of(feedPageSize));
+    }
+
+    /**
+     * Retrieves the summaries of the given posts, in the order of the given IDs.
+     * IDs of posts that no longer exist are skipped.
+     * @param ids The post IDs, e.g. search hits in rank order.
+     * @return The summaries, in the same order as the IDs.
+     */
+    @Transactional(readOnly = true)
+    public List<PostSummary> findSummariesByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<PostSummary> summaries = new ArrayList<>(postRepository.findSummariesByIdIn(ids));
+        summaries.sort(Comparator.comparingInt(summary -> ids.indexOf(summary.id())));
+        return summaries;
+    }
+
+    /**
+     * Finds the HTTP cache validators (version and timestamps) of a post.
+     * @param id The primary key of the post.
+     * @return The post's validators.
+     * @throws RuntimeException if no post is found with the given ID.
+     */
+    @Transactional(readOnly = true)
+    public PostValidator findPostValidator(Long id) {
+        return postRepository.findValidatorById(id)
+                .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
+    }
+
     /**
      * Saves a Post entity. This method handles both creation of new posts
      * and updates to existing ones.
      * @param post The Post object to save. If post.id is null, it's a new post.
      * @return The saved Post entity, which will include the auto-generated ID if it was a new post.
      */
+    @Transactional // The second-level cache entry is updated when this transaction commits.
     public Post savePost(Post post) {
+        LocalDateTime now = LocalDateTime.now();
         if (post.getId() == null) {
-            post.setCreatedAt(LocalDateTime.now());
+            post.setCreatedAt(now);
         }
-        return postRepository.save(post);
+        post.setUpdatedAt(now);
+        // The Markdown source is rendered, sanitized and summarized once here, on write,
+        // so that the post page serves stored HTML and listing pages can show the excerpt
+        // without ever loading the full article body.
+        PostContentRenderer.RenderedContent rendered = contentRenderer.render(post.getContent());
+        post.setContentHtml(rendered.html());
+        post.setExcerpt(rendered.excerpt());
+        post.setWordCount(rendered.wordCount());
+        post.setRenderVersion(PostContentRenderer.RULES_VERSION);
+        Post saved = postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(saved.getId(), PostChangedEvent.Change.SAVED));
+        return saved;
     }
 
     // --- NEW: Implement the method to delete a post ---\
@@ -59,10 +178,12 @@ public class PostService {
      *
      * @param id The primary key of the post to be deleted.
      */
+    @Transactional // Removes the post from the second-level cache as part of the same transaction.
     public void deletePostById(Long id) {
         // The deleteById() method is provided by JpaRepository.
         // It executes a \"DELETE FROM post WHERE id = ?\" query.
         // It has a void return type, as it does not return any data.
         postRepository.deleteById(id);
+        eventPublisher.publishEvent(new PostChangedEvent(id, PostChangedEvent.Change.DELETED));
     }
 }
\ No newline at end of file
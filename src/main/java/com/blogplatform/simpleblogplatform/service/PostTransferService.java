@@ -0,0 +1,376 @@
+package com.blogplatform.simpleblogplatform.service;
+
+import com.blogplatform.simpleblogplatform.dto.ExportedComment;
+import com.blogplatform.simpleblogplatform.dto.ExportedPost;
+import com.blogplatform.simpleblogplatform.dto.TransferStats;
+import com.blogplatform.simpleblogplatform.event.PostsImportedEvent;
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.render.PostContentRenderer;
+import com.blogplatform.simpleblogplatform.repository.CommentRepository;
+import com.blogplatform.simpleblogplatform.repository.PostRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Exports all posts with their comments as NDJSON (one {@link ExportedPost} per line) and
+ * imports such files, for backups and for moving a blog to another database.
+ *
+ * Both directions work in constant memory, whatever the size of the blog:
+ * - The export reads posts and comments through two forward-only cursors, both ordered
+ *   by post ID, and merges them while writing, like a merge join. Only the current post
+ *   is held; the persistence context is cleared every few hundred posts so the streamed
+ *   entities can be garbage collected.
+ * - The import parses one line at a time and writes posts and comments with JDBC batches,
+ *   one transaction per batch. A failing line stops the import; the batches before it
+ *   stay committed, and the error message names the line.
+ *
+ * Authors are matched by username. Authors that do not exist yet are created as USER
+ * accounts without a usable password; they can log in once an admin sets one
+ * (see UserService#changePassword).
+ */
+@Service
+public class PostTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostTransferService.class);
+
+    // Posts exported between two clears of the persistence context.
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+
+    // Stored instead of a BCrypt hash for authors created by an import; it never matches.
+    private static final String NO_PASSWORD = "!";
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostContentRenderer contentRenderer;
+
+    // Import: posts plus comments written per transaction (property "blog.transfer.import-batch-rows").
+    private final int importBatchRows;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PostTransferService(PostRepository postRepository, CommentRepository commentRepository,
+                               JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                               PostContentRenderer contentRenderer,
+                               @Value("${blog.transfer.import-batch-rows:1000}") int importBatchRows) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.contentRenderer = contentRenderer;
+        this.importBatchRows = Math.max(1, importBatchRows);
+    }
+
+    /**
+     * Writes every post with its comments to the stream, one JSON object per line, in
+     * post ID order. The stream is flushed regularly but not closed.
+     *
+     * @param out Where to write the NDJSON.
+     * @return How many posts and comments were written, and how long it took.
+     */
+    @Transactional(readOnly = true)
+    public TransferStats exportTo(OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long posts = 0;
+        long comments = 0;
+        try (Stream<Post> postStream = postRepository.streamAllForExport();
+             Stream<ExportedComment> commentStream = commentRepository.streamAllForExport();
+             JsonGenerator json = objectMapper.createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Compact objects, separated by newlines.
+            json.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+
+            Iterator<ExportedComment> commentCursor = commentStream.iterator();
+            ExportedComment comment = commentCursor.hasNext() ? commentCursor.next() : null;
+            for (Iterator<Post> postCursor = postStream.iterator(); postCursor.hasNext(); ) {
+                Post post = postCursor.next();
+                Long postId = post.getId();
+
+                json.writeStartObject();
+                json.writeNumberField("id", postId);
+                json.writeStringField("title", post.getTitle());
+                json.writeStringField("content", post.getContent());
+                json.writeStringField("author", post.getUser() != null ? post.getUser().getUsername() : null);
+                json.writePOJOField("createdAt", post.getCreatedAt());
+                json.writePOJOField("updatedAt", post.getUpdatedAt());
+                json.writeNumberField("viewCount", post.getViewCount());
+                json.writeArrayFieldStart("comments");
+                // Both cursors are ordered by post ID. Comments of a post that was deleted
+                // between opening the two cursors have no line to go to and are skipped.
+                while (comment != null && comment.postId() < postId) {
+                    comment = commentCursor.hasNext() ? commentCursor.next() : null;
+                }
+                while (comment != null && comment.postId().equals(postId)) {
+                    json.writeObject(comment);
+                    comments++;
+                    comment = commentCursor.hasNext() ? commentCursor.next() : null;
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+
+                if (++posts % EXPORT_CLEAR_INTERVAL == 0) {
+                    // Detach the posts (and authors) read so far, so they can be collected.
+                    entityManager.clear();
+                    json.flush();
+                }
+            }
+            if (posts > 0) {
+                json.writeRaw('\n');
+            }
+        }
+        TransferStats stats = new TransferStats(posts, comments, Duration.ofNanos(System.nanoTime() - start));
+        log.info("Exported {} posts and {} comments in {} ms ({} rows/s)",
+                stats.posts(), stats.comments(), stats.elapsed().toMillis(), stats.rowsPerSecond());
+        return stats;
+    }
+
+    /**
+     * Reads NDJSON as written by {@link #exportTo(OutputStream)} and adds its posts and
+     * comments to the database. Posts get new IDs; the "id" field of each line is ignored.
+     *
+     * @param in The NDJSON to read; it is read to the end but not closed.
+     * @return How many posts and comments were imported, and how long it took.
+     * @throws PostImportException If a line is not a valid post or cannot be written.
+     * @throws IOException If the input cannot be read.
+     */
+    public TransferStats importFrom(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        long posts = 0;
+        long comments = 0;
+        List<ExportedPost> batch = new ArrayList<>();
+        int batchRows = 0;
+        long batchFirstLine = 1;
+        try (MappingIterator<ExportedPost> lines = objectMapper.readerFor(ExportedPost.class).readValues(in)) {
+            while (true) {
+                ExportedPost post;
+                try {
+                    if (!lines.hasNextValue()) {
+                        break;
+                    }
+                    post = lines.nextValue();
+                } catch (JsonProcessingException e) {
+                    throw new PostImportException("Line " + e.getLocation().getLineNr() + " is not a valid post: "
+                            + e.getOriginalMessage(), posts, e);
+                }
+                long line = lines.getCurrentLocation().getLineNr();
+                if (batch.isEmpty()) {
+                    batchFirstLine = line;
+                }
+                validate(post, line, posts);
+                batch.add(post);
+                batchRows += 1 + commentCount(post);
+                if (batchRows >= importBatchRows) {
+                    writeBatch(batch, batchFirstLine, line, posts);
+                    posts += batch.size();
+                    comments += batchRows - batch.size();
+                    batch.clear();
+                    batchRows = 0;
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch, batchFirstLine, lines.getCurrentLocation().getLineNr(), posts);
+                posts += batch.size();
+                comments += batchRows - batch.size();
+            }
+        } finally {
+            if (posts > 0) {
+                eventPublisher.publishEvent(new PostsImportedEvent(posts));
+            }
+        }
+        TransferStats stats = new TransferStats(posts, comments, Duration.ofNanos(System.nanoTime() - start));
+        log.info("Imported {} posts and {} comments in {} ms ({} rows/s)",
+                stats.posts(), stats.comments(), stats.elapsed().toMillis(), stats.rowsPerSecond());
+        return stats;
+    }
+
+    private static void validate(ExportedPost post, long line, long importedPosts) {
+        if (post.comments() != null) {
+            for (ExportedComment comment : post.comments()) {
+                if (comment.author() == null) {
+                    throw new PostImportException("Line " + line + " has a comment without an author",
+                            importedPosts, null);
+                }
+            }
+        }
+    }
+
+    private void writeBatch(List<ExportedPost> batch, long firstLine, long lastLine, long importedPosts) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, Long> userIds = resolveAuthors(batch);
+                List<Long> postIds = insertPosts(batch, userIds);
+                insertComments(batch, postIds, userIds);
+            });
+        } catch (DataAccessException e) {
+            // A value the schema rejects, e.g. a title that is too long.
+            throw new PostImportException("Lines " + firstLine + " to " + lastLine + " could not be written: "
+                    + e.getMostSpecificCause().getMessage(), importedPosts, e);
+        }
+    }
+
+    /**
+     * Looks up the IDs of all authors in the batch, creating the ones that do not exist.
+     */
+    private Map<String, Long> resolveAuthors(List<ExportedPost> batch) {
+        Set<String> usernames = new LinkedHashSet<>();
+        for (ExportedPost post : batch) {
+            if (post.author() != null) {
+                usernames.add(post.author());
+            }
+            if (post.comments() != null) {
+                for (ExportedComment comment : post.comments()) {
+                    usernames.add(comment.author());
+                }
+            }
+        }
+        Map<String, Long> userIds = new HashMap<>();
+        if (usernames.isEmpty()) {
+            return userIds;
+        }
+        findUserIds(usernames, userIds);
+        List<Object[]> missing = usernames.stream()
+                .filter(username -> !userIds.containsKey(username))
+                .map(username -> new Object[]{username, NO_PASSWORD, "USER"})
+                .toList();
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into users (username, password, role) values (?, ?, ?)", missing);
+            findUserIds(usernames, userIds);
+        }
+        return userIds;
+    }
+
+    private void findUserIds(Set<String> usernames, Map<String, Long> userIds) {
+        namedJdbcTemplate.query("select id, username from users where username in (:usernames)",
+                Map.of("usernames", usernames),
+                rs -> { userIds.put(rs.getString(2), rs.getLong(1)); });
+    }
+
+    /**
+     * Inserts the posts with one JDBC batch and returns their generated IDs, in order.
+     * The rendered HTML, excerpt, word count, comment count and last comment time are
+     * derived here, as savePost and saveComment would have done.
+     */
+    private List<Long> insertPosts(List<ExportedPost> batch, Map<String, Long> userIds) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into post (title, content, content_html, excerpt, word_count, render_version, " +
+                            "created_at, updated_at, last_comment_at, comment_count, view_count, version, user_id) " +
+                            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)",
+                    new String[]{"id"})) {
+                for (ExportedPost post : batch) {
+                    PostContentRenderer.RenderedContent rendered = contentRenderer.render(post.content());
+                    insert.setString(1, post.title());
+                    insert.setString(2, post.content());
+                    insert.setString(3, rendered.html());
+                    insert.setString(4, rendered.excerpt());
+                    insert.setInt(5, rendered.wordCount());
+                    insert.setInt(6, PostContentRenderer.RULES_VERSION);
+                    insert.setTimestamp(7, timestamp(post.createdAt()));
+                    insert.setTimestamp(8, timestamp(post.updatedAt()));
+                    insert.setTimestamp(9, timestamp(lastCommentAt(post)));
+                    insert.setLong(10, commentCount(post));
+                    insert.setLong(11, post.viewCount());
+                    if (post.author() != null) {
+                        insert.setLong(12, userIds.get(post.author()));
+                    } else {
+                        insert.setNull(12, Types.BIGINT);
+                    }
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                List<Long> ids = new ArrayList<>(batch.size());
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                if (ids.size() != batch.size()) {
+                    throw new IllegalStateException("Expected " + batch.size() + " generated post IDs, got " + ids.size());
+                }
+                return ids;
+            }
+        });
+    }
+
+    private void insertComments(List<ExportedPost> batch, List<Long> postIds, Map<String, Long> userIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.get(i).comments() == null) {
+                continue;
+            }
+            for (ExportedComment comment : batch.get(i).comments()) {
+                rows.add(new Object[]{comment.content(), timestamp(comment.createdAt()),
+                        postIds.get(i), userIds.get(comment.author())});
+            }
+        }
+        if (!rows.isEmpty()) {
+            // Each row takes its own value from the sequence. Hibernate hands out the IDs
+            // below each value it fetched, so the two never collide.
+            jdbcTemplate.batchUpdate("insert into comment (id, content, created_at, post_id, user_id) " +
+                    "values (next value for comment_seq, ?, ?, ?, ?)", rows);
+        }
+    }
+
+    private static int commentCount(ExportedPost post) {
+        return post.comments() == null ? 0 : post.comments().size();
+    }
+
+    private static LocalDateTime lastCommentAt(ExportedPost post) {
+        LocalDateTime last = null;
+        if (post.comments() != null) {
+            for (ExportedComment comment : post.comments()) {
+                if (comment.createdAt() != null && (last == null || comment.createdAt().isAfter(last))) {
+                    last = comment.createdAt();
+                }
+            }
+        }
+        return last;
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+}
@@ -2,8 +2,12 @@ package com.blogplatform.simpleblogplatform.service;
 
 import com.blogplatform.simpleblogplatform.model.User;
 import com.blogplatform.simpleblogplatform.repository.UserRepository;
+import com.blogplatform.simpleblogplatform.security.TtlUserCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * UserService handles the business logic for user-related operations,
@@ -19,16 +23,21 @@ public class UserService {
     // Dependency on PasswordEncoder for hashing passwords.
     private final PasswordEncoder passwordEncoder;
 
+    // Cache of loaded UserDetails, which must forget a user whose credentials change.
+    private final TtlUserCache userCache;
+
     /**
      * Constructs the UserService with its required dependencies.
      * Spring will inject the beans for UserRepository and PasswordEncoder here.
      *
      * @param userRepository  The repository for user data access.
      * @param passwordEncoder The encoder for hashing passwords.
+     * @param userCache       The cache used by CustomUserDetailsService.
      */
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, TtlUserCache userCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
     }
 
     /**
@@ -38,6 +47,7 @@ public class UserService {
      * @return The saved User entity.
      * @throws IllegalStateException if a user with the same username already exists.
      */
+    @Transactional // The duplicate check and the insert both run on the primary database.
     public User registerUser(User user) {
         // Business Rule 1: Check if a user with this username already exists.
         // It's crucial to prevent duplicate usernames.
@@ -58,4 +68,55 @@ public class UserService {
         // The save method will return the persisted entity, now with an ID.
         return userRepository.save(user);
     }
-}
\ No newline at end of file
+
+    /**
+     * Changes a user's password.
+     *
+     * @param username    The user whose password changes.
+     * @param rawPassword The new plain-text password.
+     * @throws IllegalArgumentException if the user does not exist.
+     */
+    @Transactional
+    public void changePassword(String username, String rawPassword) {
+        User user = findExisting(username);
+        user.setPassword(passwordEncoder.encode(rawPassword));
+        userRepository.save(user);
+        evictFromUserCache(username);
+    }
+
+    /**
+     * Changes a user's role, e.g. from "USER" to "ADMIN".
+     *
+     * @param username The user whose role changes.
+     * @param role     The new role, without the "ROLE_" prefix.
+     * @throws IllegalArgumentException if the user does not exist.
+     */
+    @Transactional
+    public void changeRole(String username, String role) {
+        User user = findExisting(username);
+        user.setRole(role);
+        userRepository.save(user);
+        evictFromUserCache(username);
+    }
+
+    private User findExisting(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with username: " + username));
+    }
+
+    /**
+     * Evicts the user now and again once the transaction has ended, so that a copy loaded
+     * by a concurrent login before our commit cannot stay in the cache.
+     */
+    private void evictFromUserCache(String username) {
+        userCache.removeUserFromCache(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    userCache.removeUserFromCache(username);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.blogplatform.simpleblogplatform.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts post views in memory and writes them to the database in periodic batches.
+ *
+ * Incrementing the post row on every page view would make concurrent readers of a popular
+ * post queue up on that row's lock. Instead each post gets a LongAdder, which spreads
+ * concurrent increments over several cells, and a scheduled job adds the accumulated
+ * deltas to post.view_count with a single JDBC batch. Pending deltas are also flushed
+ * on shutdown; views counted since the last flush are lost only if the JVM dies abruptly.
+ *
+ * Metrics: blog.views.pending (posts with unflushed views), blog.views.flush.lag (seconds
+ * since the last successful flush), blog.views.flushed and blog.views.dropped (views that
+ * could not be recorded, because too many posts were pending or a failed flush could
+ * not be re-queued).
+ */
+@Service
+public class ViewCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(ViewCounterService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxPendingPosts;
+
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // Adders removed from the map by the previous flush. A viewer may still have been holding
+    // one, so they are drained once more by the next flush before being forgotten.
+    private List<Map.Entry<Long, LongAdder>> retired = new ArrayList<>(); // guarded by "this"
+
+    private volatile long lastFlushNanos = System.nanoTime();
+
+    private final Counter flushed;
+    private final Counter dropped;
+
+    public ViewCounterService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                              @Value("${blog.views.max-pending-posts:100000}") int maxPendingPosts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxPendingPosts = maxPendingPosts;
+        this.flushed = Counter.builder("blog.views.flushed").register(meterRegistry);
+        this.dropped = Counter.builder("blog.views.dropped").register(meterRegistry);
+        Gauge.builder("blog.views.pending", pending, Map::size).register(meterRegistry);
+        Gauge.builder("blog.views.flush.lag", this,
+                        service -> (System.nanoTime() - service.lastFlushNanos) / 1e9)
+                .baseUnit("seconds").register(meterRegistry);
+    }
+
+    /**
+     * Records one view of a post. This never blocks and never touches the database.
+     *
+     * @param postId The ID of an existing post.
+     */
+    public void recordView(Long postId) {
+        add(postId, 1);
+    }
+
+    private void add(Long postId, long views) {
+        LongAdder adder = pending.get(postId);
+        if (adder == null) {
+            // Bound the map, so that a flood of distinct IDs cannot exhaust the heap.
+            if (pending.size() >= maxPendingPosts) {
+                dropped.increment(views);
+                return;
+            }
+            adder = pending.computeIfAbsent(postId, id -> new LongAdder());
+        }
+        adder.add(views);
+    }
+
+    /**
+     * Adds the views counted since the last flush to the database.
+     * Posts are updated in ID order, so concurrent flushes (e.g. from several application
+     * instances) always lock rows in the same order and cannot deadlock each other.
+     */
+    @Scheduled(fixedDelayString = "${blog.views.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<Long, Long> deltas = new TreeMap<>();
+        for (Map.Entry<Long, LongAdder> entry : retired) {
+            collect(deltas, entry.getKey(), entry.getValue().sumThenReset());
+        }
+        List<Map.Entry<Long, LongAdder>> nowIdle = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long views = entry.getValue().sumThenReset();
+            if (views == 0 && pending.remove(entry.getKey(), entry.getValue())) {
+                // No views for a whole interval: drop the adder to keep the map small.
+                nowIdle.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+            collect(deltas, entry.getKey(), views);
+        }
+        retired = nowIdle;
+
+        if (deltas.isEmpty()) {
+            lastFlushNanos = System.nanoTime();
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((postId, views) -> batch.add(new Object[]{views, postId}));
+        try {
+            jdbcTemplate.batchUpdate("update post set view_count = view_count + ? where id = ?", batch);
+            deltas.values().forEach(flushed::increment);
+            lastFlushNanos = System.nanoTime();
+        } catch (RuntimeException e) {
+            // Put the deltas back; they will be retried with the next flush.
+            log.warn("Could not flush {} view counters, will retry: {}", deltas.size(), e.toString());
+            deltas.forEach(this::add);
+        }
+    }
+
+    private static void collect(Map<Long, Long> deltas, Long postId, long views) {
+        if (views != 0) {
+            deltas.merge(postId, views, Long::sum);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,171 @@
+package com.blogplatform.simpleblogplatform.syndication;
+
+import com.blogplatform.simpleblogplatform.dto.FeedEntry;
+import com.blogplatform.simpleblogplatform.event.PostChangedEvent;
+import com.blogplatform.simpleblogplatform.event.PostsImportedEvent;
+import com.blogplatform.simpleblogplatform.event.PostsRenderedEvent;
+import com.blogplatform.simpleblogplatform.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The Atom feed (/feed.atom) of the newest posts, kept in memory as a ready-to-send
+ * document. Feed readers poll it constantly, so serving it must not touch the database.
+ *
+ * The feed holds a rolling window of the "blog.atom.entries" newest posts. Committed post
+ * changes are applied to the window one at a time: a saved post is inserted or replaced
+ * (and the oldest one dropped), a post outside the window is ignored. Only deleting a post
+ * from a full window reloads it, to pull in the next older post. The document, its entity
+ * tag and its modification time are rebuilt whenever the window changes; readers keep
+ * using the previous snapshot meanwhile.
+ */
+@Component
+public class AtomFeed {
+
+    /**
+     * A ready-to-send version of the feed.
+     *
+     * @param xml          The Atom document, UTF-8 encoded.
+     * @param etag         A strong entity tag, a digest of the document.
+     * @param lastModified When this version was built, in epoch milliseconds. Not the time
+     *                     of the newest entry: removing a post changes the feed without
+     *                     making anything in it newer.
+     */
+    public record Snapshot(byte[] xml, String etag, long lastModified) {
+    }
+
+    private static final Comparator<FeedEntry> NEWEST_FIRST = Comparator
+            .comparing(FeedEntry::createdAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+            .thenComparing(FeedEntry::id, Comparator.reverseOrder());
+
+    private final PostRepository postRepository;
+    private final int size;
+    private final String title;
+    private final String baseUrl;
+    private final long startedAt = System.currentTimeMillis();
+
+    // Newest first, at most "size" entries. Guarded by "this".
+    private final List<FeedEntry> window = new ArrayList<>();
+
+    private volatile Snapshot snapshot;
+
+    public AtomFeed(PostRepository postRepository,
+                    @Value("${blog.atom.entries:20}") int size,
+                    @Value("${blog.site.title:Simple Blog Platform}") String title,
+                    @Value("${blog.site.url:http://localhost:8080}") String siteUrl) {
+        this.postRepository = postRepository;
+        this.size = Math.max(1, size);
+        this.title = title;
+        this.baseUrl = XmlText.baseUrl(siteUrl);
+        this.snapshot = build(List.of());
+    }
+
+    /**
+     * Returns the current version of the feed.
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    // Reloaded after a bulk import or re-render too, which publish no per-post change events.
+    @EventListener({ApplicationReadyEvent.class, PostsImportedEvent.class, PostsRenderedEvent.class})
+    public synchronized void load() {
+        window.clear();
+        window.addAll(postRepository.findNewestFeedEntries(Limit.of(size)));
+        snapshot = build(window);
+    }
+
+    /**
+     * Applies a committed post change to the window.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPostChanged(PostChangedEvent event) {
+        // Comments are not part of the feed.
+        if (event.change() == PostChangedEvent.Change.COMMENTED) {
+            return;
+        }
+        boolean full = window.size() >= size;
+        boolean removed = window.removeIf(entry -> entry.id().equals(event.postId()));
+        // Re-reading the post (instead of trusting the event) also handles deletes, and
+        // holding the lock keeps concurrent changes from being applied out of order.
+        FeedEntry entry = postRepository.findFeedEntryById(event.postId()).orElse(null);
+        if (entry == null) {
+            if (!removed) {
+                return;
+            }
+            if (full) {
+                // The window lost a post, and an older one may need to take its place.
+                load();
+                return;
+            }
+        } else {
+            if (!removed && full && NEWEST_FIRST.compare(entry, window.get(window.size() - 1)) > 0) {
+                return; // Older than everything in the feed.
+            }
+            window.add(entry);
+            window.sort(NEWEST_FIRST);
+            if (window.size() > size) {
+                window.remove(window.size() - 1);
+            }
+        }
+        snapshot = build(window);
+    }
+
+    private Snapshot build(List<FeedEntry> entries) {
+        LocalDateTime updated = null;
+        for (FeedEntry entry : entries) {
+            LocalDateTime entryUpdated = entry.updated();
+            if (entryUpdated != null && (updated == null || entryUpdated.isAfter(updated))) {
+                updated = entryUpdated;
+            }
+        }
+        Instant feedUpdated = updated == null ? Instant.ofEpochMilli(startedAt)
+                : updated.atZone(ZoneId.systemDefault()).toInstant();
+
+        StringBuilder xml = new StringBuilder(1024 + 512 * entries.size());
+        xml.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n")
+                .append("<feed xmlns=\"http://www.w3.org/2005/Atom\">\n")
+                .append("  <title>").append(XmlText.escape(title)).append("</title>\n")
+                .append("  <id>").append(XmlText.escape(baseUrl)).append("/</id>\n")
+                .append("  <link rel=\"self\" href=\"").append(XmlText.escape(baseUrl)).append("/feed.atom\"/>\n")
+                .append("  <link rel=\"alternate\" type=\"text/html\" href=\"").append(XmlText.escape(baseUrl)).append("/\"/>\n")
+                .append("  <updated>").append(XmlText.timestamp(feedUpdated)).append("</updated>\n")
+                // Used for entries of posts without an author; Atom requires one.
+                .append("  <author><name>").append(XmlText.escape(title)).append("</name></author>\n");
+        for (FeedEntry entry : entries) {
+            String link = XmlText.escape(baseUrl) + "/posts/" + entry.id();
+            xml.append("  <entry>\n")
+                    .append("    <title>").append(XmlText.escape(entry.title())).append("</title>\n")
+                    .append("    <id>").append(link).append("</id>\n")
+                    .append("    <link rel=\"alternate\" type=\"text/html\" href=\"").append(link).append("\"/>\n");
+            if (entry.createdAt() != null) {
+                xml.append("    <published>").append(XmlText.timestamp(entry.createdAt())).append("</published>\n");
+            }
+            xml.append("    <updated>")
+                    .append(entry.updated() == null ? XmlText.timestamp(feedUpdated) : XmlText.timestamp(entry.updated()))
+                    .append("</updated>\n");
+            if (entry.authorUsername() != null) {
+                xml.append("    <author><name>").append(XmlText.escape(entry.authorUsername())).append("</name></author>\n");
+            }
+            xml.append("    <summary>").append(XmlText.escape(entry.excerpt())).append("</summary>\n")
+                    .append("  </entry>\n");
+        }
+        xml.append("</feed>\n");
+
+        byte[] bytes = xml.toString().getBytes(StandardCharsets.UTF_8);
+        return new Snapshot(bytes, "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"", System.currentTimeMillis());
+    }
+}
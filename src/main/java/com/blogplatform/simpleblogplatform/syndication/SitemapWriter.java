@@ -0,0 +1,161 @@
+package com.blogplatform.simpleblogplatform.syndication;
+
+import com.blogplatform.simpleblogplatform.dto.PostValidator;
+import com.blogplatform.simpleblogplatform.event.PostChangedEvent;
+import com.blogplatform.simpleblogplatform.event.PostsImportedEvent;
+import com.blogplatform.simpleblogplatform.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the sitemap for search engine crawlers. The sitemap protocol allows at most
+ * 50,000 URLs per file, so /sitemap.xml is a sitemap index that lists one file per range
+ * of "blog.sitemap.urls-per-file" post IDs (/sitemap-posts-0.xml, /sitemap-posts-1.xml,
+ * and so on); the first one also lists the home page. Each file is written straight
+ * from a database cursor over its ID range, so no file is ever held in memory, however
+ * many posts there are. Ranges of deleted posts simply list fewer URLs.
+ *
+ * Crawlers re-fetch sitemaps often, so they are validated with a "last change" time kept
+ * in memory and moved forward by every committed post change or import. A conditional
+ * request answered with 304 costs no database access. The time is per process, so after
+ * a restart (or on another node) every crawler gets the full sitemap once more. The number
+ * of files is remembered for the same version, so checking that a requested file exists
+ * only queries the highest post ID once per change.
+ */
+@Component
+public class SitemapWriter {
+
+    private static final String NAMESPACE = "http://www.sitemaps.org/schemas/sitemap/0.9";
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long urlsPerFile;
+    private final String baseUrl;
+
+    private volatile long lastChange = System.currentTimeMillis();
+
+    // The number of files, as counted at one version (lastChange) of the sitemap.
+    private record FileCount(long lastChange, long files) {
+    }
+
+    private volatile FileCount fileCount = new FileCount(-1, 0);
+
+    public SitemapWriter(PostRepository postRepository, PlatformTransactionManager transactionManager,
+                         @Value("${blog.sitemap.urls-per-file:50000}") long urlsPerFile,
+                         @Value("${blog.site.url:http://localhost:8080}") String siteUrl) {
+        this.postRepository = postRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Files with more URLs would not be accepted by crawlers.
+        this.urlsPerFile = Math.min(50_000, Math.max(1, urlsPerFile));
+        this.baseUrl = XmlText.escape(XmlText.baseUrl(siteUrl));
+    }
+
+    /**
+     * A strong entity tag for the current version of the sitemap (index and files).
+     */
+    public String etag() {
+        return "\"sitemap-" + lastChange + "\"";
+    }
+
+    /**
+     * When a post last changed, in epoch milliseconds (or when this process started).
+     */
+    public long lastModified() {
+        return lastChange;
+    }
+
+    /**
+     * Writes the sitemap index, with one entry per file of post URLs.
+     */
+    public void writeIndex(Writer writer) throws IOException {
+        long files = files();
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<sitemapindex xmlns=\"" + NAMESPACE + "\">\n");
+        // No lastmod per file: only a changed post's own URL entry knows when it changed.
+        for (long file = 0; file < files; file++) {
+            writer.write("  <sitemap><loc>" + baseUrl + "/sitemap-posts-" + file + ".xml</loc></sitemap>\n");
+        }
+        writer.write("</sitemapindex>\n");
+    }
+
+    /**
+     * Whether the sitemap index lists the given file.
+     *
+     * @param file The zero-based number of the file.
+     */
+    public boolean hasFile(long file) {
+        return file >= 0 && file < files();
+    }
+
+    /**
+     * Writes one file of the sitemap, with the posts whose ID falls in its range.
+     *
+     * @param file The zero-based number of the file; see {@link #hasFile(long)}.
+     */
+    public void writeFile(long file, Writer writer) throws IOException {
+        // Overflows only for a file far past the last one, which hasFile() rejects.
+        long fromId = Math.multiplyExact(file, urlsPerFile);
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<urlset xmlns=\"" + NAMESPACE + "\">\n");
+        if (file == 0) {
+            writer.write("  <url><loc>" + baseUrl + "/</loc></url>\n");
+        }
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<PostValidator> posts = postRepository.streamValidatorsForSitemap(fromId, fromId + urlsPerFile)) {
+                Iterator<PostValidator> it = posts.iterator();
+                while (it.hasNext()) {
+                    PostValidator post = it.next();
+                    writer.write("  <url><loc>" + baseUrl + "/posts/" + post.id() + "</loc>");
+                    if (post.lastModified() >= 0) {
+                        writer.write("<lastmod>" + XmlText.timestamp(Instant.ofEpochMilli(post.lastModified()))
+                                + "</lastmod>");
+                    }
+                    writer.write("</url>\n");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.write("</urlset>\n");
+    }
+
+    /**
+     * Moves the sitemap to a new version once a post change has been committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        touch();
+    }
+
+    @EventListener(PostsImportedEvent.class)
+    public void onPostsImported() {
+        touch();
+    }
+
+    private long files() {
+        FileCount count = fileCount;
+        long version = lastChange;
+        if (count.lastChange() != version) {
+            // The first file also lists the home page, so there is one even without posts.
+            Long maxId = postRepository.findMaxId();
+            count = new FileCount(version, maxId == null ? 1 : maxId / urlsPerFile + 1);
+            fileCount = count;
+        }
+        return count.files();
+    }
+
+    private synchronized void touch() {
+        // Validators have a resolution of one second; never reuse a value already handed out.
+        lastChange = Math.max(System.currentTimeMillis(), lastChange + 1000);
+    }
+}
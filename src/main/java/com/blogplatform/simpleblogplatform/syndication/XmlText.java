@@ -0,0 +1,50 @@
+package com.blogplatform.simpleblogplatform.syndication;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Helpers shared by the Atom feed and the sitemap, which are written as plain text
+ * rather than through the template engine.
+ */
+final class XmlText {
+
+    private XmlText() {
+    }
+
+    /**
+     * Escapes text for use in XML content or attribute values. Only the five markup
+     * characters are replaced, so the output stays valid XML (no HTML-only entities).
+     */
+    static String escape(String text) {
+        return text == null ? "" : HtmlUtils.htmlEscape(text, "UTF-8");
+    }
+
+    /**
+     * Formats a stored timestamp (in the server's time zone, like PostValidator) as an
+     * RFC 3339 / W3C date-time in UTC, e.g. "2024-01-31T09:15:00Z".
+     */
+    static String timestamp(LocalDateTime time) {
+        return timestamp(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    static String timestamp(Instant time) {
+        return DateTimeFormatter.ISO_INSTANT.format(time.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Removes trailing slashes from the configured site URL, so paths can be appended.
+     */
+    static String baseUrl(String siteUrl) {
+        String url = siteUrl.trim();
+        while (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        return url;
+    }
+}
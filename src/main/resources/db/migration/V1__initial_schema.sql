@@ -0,0 +1,40 @@
+-- The tables as Hibernate used to generate them from the Post, Comment and User entities.
+-- From now on every schema change is a new migration; Hibernate only validates.
+
+create sequence comment_seq start with 1 increment by 50;
+
+create table users (
+    id bigint generated by default as identity,
+    password varchar(255) not null,
+    role varchar(255) not null,
+    username varchar(255) not null,
+    primary key (id),
+    constraint uk_users_username unique (username)
+);
+
+create table post (
+    id bigint generated by default as identity,
+    title varchar(255),
+    content varchar(255),
+    excerpt varchar(280),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    last_comment_at timestamp(6),
+    comment_count bigint not null,
+    view_count bigint not null,
+    version bigint,
+    user_id bigint,
+    primary key (id),
+    constraint fk_post_user foreign key (user_id) references users
+);
+
+create table comment (
+    id bigint not null,
+    content varchar(255),
+    created_at timestamp(6),
+    post_id bigint not null,
+    user_id bigint not null,
+    primary key (id),
+    constraint fk_comment_post foreign key (post_id) references post,
+    constraint fk_comment_user foreign key (user_id) references users
+);
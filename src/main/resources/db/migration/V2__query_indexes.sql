@@ -0,0 +1,20 @@
+-- Indexes for the queries the application actually runs. QueryPlanTests checks with
+-- EXPLAIN that no repository query falls back to a full table scan.
+
+-- Home feed (PostRepository.findNewest/findOlderThan/findNewerThan): keyset pagination
+-- over (created_at, id). Reading the index in order returns each page without a sort,
+-- and the cursor condition is a range on it, so a page reads only page-size + 1 rows.
+create index idx_post_created_at_id on post (created_at, id);
+
+-- Posts of one author, newest first, for author listings. The foreign keys themselves
+-- (post.user_id, comment.post_id, comment.user_id) are indexed by H2 automatically.
+create index idx_post_user_created_at on post (user_id, created_at, id);
+
+-- "Most viewed" page (PostRepository.findMostViewed).
+create index idx_post_view_count_id on post (view_count, id);
+
+-- A post's comment page (CommentRepository.findPageByPostId), oldest first: the rows of
+-- one post in display order, so a page needs no sort of all of the post's comments.
+-- (H2's planner currently prefers its foreign key index on post_id and sorts instead.)
+create index idx_comment_post_created_at on comment (post_id, created_at, id);
+
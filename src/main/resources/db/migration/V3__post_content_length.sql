@@ -0,0 +1,3 @@
+-- Article bodies were limited to the default 255 characters. Real posts run from a few
+-- hundred to tens of thousands of characters (see Post.MAX_CONTENT_LENGTH).
+alter table post alter column content set data type varchar(100000);
@@ -0,0 +1,8 @@
+-- Post content is Markdown. Its sanitized HTML rendering and word count are stored next
+-- to it when the post is saved, so no page view ever parses or sanitizes anything.
+-- render_version records which rendering rules produced content_html; PostRenderJob
+-- re-renders every post whose version is older than the current rules (all existing
+-- posts, the first time).
+alter table post add column content_html varchar(1000000);
+alter table post add column word_count integer default 0 not null;
+alter table post add column render_version integer default 0 not null;
@@ -0,0 +1,216 @@
+package com.blogplatform.simpleblogplatform.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A closed-loop HTTP load test of the home page, post pages and comment submission.
+ * Subclasses boot the application in platform-thread and virtual-thread mode, so the
+ * two reports can be compared directly. Run both with: mvn test -Pbenchmark
+ *
+ * CLIENTS concurrent clients (more than Tomcat's 200 platform workers) each send requests
+ * back to back for MEASURE seconds after a warm-up: 45% home page, 45% post page (as an
+ * anonymous visitor) and 10% comment submissions from logged-in sessions. The random
+ * seed is fixed, so every run sends the same request mix.
+ *
+ * The database is filled by DataSeeder (the "seed" profile) with a fixed random seed, so
+ * the posts, their sizes and comment counts are the same on every machine.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "logging.level.root=WARN",
+        "blog.seed.users=" + AbstractLoadBenchmark.USERS,
+        "blog.seed.posts=" + AbstractLoadBenchmark.POSTS,
+        "blog.seed.comments=" + AbstractLoadBenchmark.COMMENTS
+})
+@ActiveProfiles("seed")
+// Each mode gets a fresh application (database, caches) and shuts it down afterwards.
+@DirtiesContext
+abstract class AbstractLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("clients", 500);
+    static final int USERS = 200;
+    static final int POSTS = 2_000;
+    static final int COMMENTS = 20_000;
+    private static final int SESSIONS = 20;
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(15);
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"[^>]*value=\"([^\"]+)\"");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    /** A logged-in browser session: its cookie and the CSRF token of its comment forms. */
+    private record Session(String cookie, String csrfToken) {
+    }
+
+    protected abstract String mode();
+
+    @Test
+    void load() throws Exception {
+        List<Long> postIds = jdbcTemplate.queryForList("select id from post order by id", Long.class);
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions.add(logIn(postIds.get(0)));
+        }
+
+        run(postIds, sessions, WARM_UP);
+        Map<String, Stats> stats = run(postIds, sessions, MEASURE);
+
+        System.out.printf("%n=== %s: %d clients, %d s ===%n", mode(), CLIENTS, MEASURE.toSeconds());
+        long total = 0;
+        for (Map.Entry<String, Stats> entry : new java.util.TreeMap<>(stats).entrySet()) {
+            Stats s = entry.getValue();
+            total += s.count();
+            System.out.printf("%-8s %8d req  %8.0f req/s  p50 %6.1f ms  p99 %7.1f ms  errors %d%n",
+                    entry.getKey(), s.count(), s.count() / (double) MEASURE.toSeconds(),
+                    s.percentile(50), s.percentile(99), s.errors.sum());
+        }
+        System.out.printf("total    %8d req  %8.0f req/s%n%n", total, total / (double) MEASURE.toSeconds());
+        assertTrue(total > 0);
+    }
+
+    private Map<String, Stats> run(List<Long> postIds, List<Session> sessions, Duration duration) throws Exception {
+        Map<String, Stats> stats = new ConcurrentHashMap<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                Random random = new Random(c);
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long postId = postIds.get(random.nextInt(postIds.size()));
+                        int dice = random.nextInt(100);
+                        String name;
+                        HttpRequest request;
+                        if (dice < 45) {
+                            name = "home";
+                            request = get("/");
+                        } else if (dice < 90) {
+                            name = "post";
+                            request = get("/posts/" + postId);
+                        } else {
+                            name = "comment";
+                            Session session = sessions.get(random.nextInt(sessions.size()));
+                            request = HttpRequest.newBuilder(uri("/posts/" + postId + "/comments"))
+                                    .header("Cookie", session.cookie())
+                                    .header("Content-Type", "application/x-www-form-urlencoded")
+                                    .POST(HttpRequest.BodyPublishers.ofString("content=Benchmark+comment&_csrf="
+                                            + URLEncoder.encode(session.csrfToken(), StandardCharsets.UTF_8)))
+                                    .build();
+                        }
+                        Stats s = stats.computeIfAbsent(name, key -> new Stats());
+                        long start = System.nanoTime();
+                        try {
+                            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status >= 400) {
+                                s.errors.increment();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            s.errors.increment();
+                            continue;
+                        }
+                        s.latencies.add(System.nanoTime() - start);
+                    }
+                    return null;
+                });
+            }
+        }
+        return stats;
+    }
+
+    private Session logIn(long postId) throws Exception {
+        HttpResponse<String> loginPage = http.send(get("/login"), HttpResponse.BodyHandlers.ofString());
+        String cookie = sessionCookie(loginPage, null);
+        String form = "username=admin&password=password&_csrf="
+                + URLEncoder.encode(csrfToken(loginPage.body()), StandardCharsets.UTF_8);
+        HttpResponse<String> login = http.send(HttpRequest.newBuilder(uri("/login"))
+                .header("Cookie", cookie)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)).build(), HttpResponse.BodyHandlers.ofString());
+        cookie = sessionCookie(login, cookie);
+        HttpResponse<String> page = http.send(HttpRequest.newBuilder(uri("/posts/" + postId))
+                .header("Cookie", cookie).build(), HttpResponse.BodyHandlers.ofString());
+        return new Session(cookie, csrfToken(page.body()));
+    }
+
+    private static String sessionCookie(HttpResponse<?> response, String fallback) {
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(value -> value.startsWith("JSESSIONID="))
+                .map(value -> value.substring(0, value.indexOf(';')))
+                .findFirst().orElse(fallback);
+    }
+
+    private static String csrfToken(String html) {
+        Matcher matcher = CSRF.matcher(html);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No CSRF token on page");
+        }
+        return matcher.group(1);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static final class Stats {
+        final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        final LongAdder errors = new LongAdder();
+
+        long count() {
+            return latencies.size();
+        }
+
+        double percentile(int p) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            if (sorted.length == 0) {
+                return 0;
+            }
+            Arrays.sort(sorted);
+            return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.blogplatform.simpleblogplatform.benchmark;
+
+import com.blogplatform.simpleblogplatform.render.PostArchiveRenderer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Renders the archive page (every post on one page) for growing numbers of posts, once
+ * streamed from a database cursor and once buffered, and reports for each:
+ *
+ * - time to first byte: until the first flush, or until more than a servlet container's
+ *   default 8 KB response buffer has been written, whichever comes first;
+ * - total time and page size;
+ * - bytes allocated by the rendering thread (the database runs on the same thread);
+ * - the heap the rendering kept alive at its peak (see HeapSampler).
+ *
+ * The page itself is discarded, as the network would take it away. Streamed, the first
+ * byte time and the retained heap should stay flat as the archive grows; buffered, both
+ * grow with it. Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive-benchmark;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=TRUE"
+})
+@DirtiesContext
+class ArchiveRenderingBenchmarkTests {
+
+    private static final int RUNS = 3;
+
+    @Autowired
+    private PostArchiveRenderer archiveRenderer;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    interface Render {
+        void render(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception;
+    }
+
+    @Test
+    void streamingKeepsFirstByteAndHeapFlat() throws Exception {
+        System.out.printf("%n%-8s %-10s %10s %10s %10s %14s %14s%n",
+                "posts", "mode", "TTFB ms", "total ms", "page MB", "allocated MB", "retained heap");
+        int seeded = 0;
+        for (int posts : new int[]{1_000, 10_000, 100_000}) {
+            seed(seeded, posts);
+            seeded = posts;
+            long streamed = measure(posts, "streaming", archiveRenderer::stream);
+            long buffered = measure(posts, "buffered", archiveRenderer::buffer);
+            assertEquals(buffered, streamed, "both modes render the same page");
+        }
+        System.out.println();
+    }
+
+    /**
+     * Renders the page a few times and prints the last run (the earlier ones warm up).
+     *
+     * @return The page size in characters.
+     */
+    private long measure(int posts, String mode, Render render) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        TimingResponse[] response = new TimingResponse[1];
+        long[] allocated = new long[1];
+        long[] elapsed = new long[1];
+        long heap = 0;
+        for (int run = 0; run < RUNS; run++) {
+            heap = HeapSampler.retainedHeapDuring(() -> {
+                MockHttpServletRequest request = new MockHttpServletRequest(context.getServletContext(), "GET",
+                        "/posts/archive");
+                request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+                response[0] = new TimingResponse();
+                long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+                render.render(request, response[0]);
+                elapsed[0] = System.nanoTime() - response[0].start;
+                allocated[0] = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            });
+        }
+        System.out.printf("%-8d %-10s %10.1f %10.1f %10.1f %14.1f %11.1f MB%n", posts, mode,
+                (response[0].firstByteNanos - response[0].start) / 1e6, elapsed[0] / 1e6,
+                response[0].chars / 1024.0 / 1024.0, allocated[0] / 1024.0 / 1024.0, heap / 1024.0 / 1024.0);
+        return response[0].chars;
+    }
+
+    /**
+     * Adds posts until there are "posts" of them.
+     */
+    private void seed(int existing, int posts) {
+        if (existing == 0) {
+            jdbcTemplate.update("insert into users (username, password, role) " +
+                    "select concat('bench', x), 'x', 'USER' from system_range(1, 500)");
+        }
+        jdbcTemplate.update("insert into post (title, content, excerpt, created_at, comment_count, view_count, " +
+                        "version, user_id) " +
+                        "select concat('Archived post number ', x), 'Content', repeat('Lorem ipsum dolor sit amet. ', 10), " +
+                        "timestamp '2020-01-01 00:00:00' + x * interval '1' minute, mod(x, 17), 0, 0, " +
+                        "(select min(id) from users where username like 'bench%') + mod(x, 500) " +
+                        "from system_range(?, ?)",
+                existing + 1, posts);
+    }
+
+    /**
+     * A response that discards the page but notes when its first bytes would have been
+     * sent: on the first flush, or once more than 8 KB (a servlet container's default
+     * response buffer) have been written.
+     */
+    private static final class TimingResponse extends MockHttpServletResponse {
+
+        private static final int CONTAINER_BUFFER = 8192;
+
+        final long start = System.nanoTime();
+        long firstByteNanos = -1;
+        long chars;
+
+        private final PrintWriter writer = new PrintWriter(new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                chars += length;
+                if (chars > CONTAINER_BUFFER) {
+                    sent();
+                }
+            }
+
+            @Override
+            public void flush() {
+                if (chars > 0) {
+                    sent();
+                }
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        private void sent() {
+            if (firstByteNanos < 0) {
+                firstByteNanos = System.nanoTime();
+            }
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            return writer;
+        }
+    }
+}
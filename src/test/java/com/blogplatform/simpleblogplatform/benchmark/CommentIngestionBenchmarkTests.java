@@ -0,0 +1,132 @@
+package com.blogplatform.simpleblogplatform.benchmark;
+
+import com.blogplatform.simpleblogplatform.dto.CommentDto;
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.service.CommentIngestionService;
+import com.blogplatform.simpleblogplatform.service.CommentService;
+import com.blogplatform.simpleblogplatform.service.PostService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares comment throughput of the synchronous path (one transaction per comment) with
+ * the asynchronous batch writer. Run with: mvn test -Pbenchmark
+ *
+ * Both modes submit the same number of comments from the same number of client threads
+ * to a handful of posts, like a burst of comments on a few viral posts.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "blog.comments.ingestion=async",
+        "blog.comments.queue-capacity=100000",
+        "logging.level.root=WARN"
+})
+class CommentIngestionBenchmarkTests {
+
+    private static final int THREADS = 16;
+    private static final int COMMENTS_PER_THREAD = 2_000;
+    private static final int POSTS = 4;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CommentIngestionService commentIngestion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareSyncAndAsyncIngestion() throws Exception {
+        List<Long> postIds = createPosts();
+
+        // Warm up both paths (JIT, connection pool, caches) before measuring.
+        runSync(postIds, 200);
+        runAsync(postIds, 200);
+
+        double syncRate = runSync(postIds, COMMENTS_PER_THREAD);
+        double asyncRate = runAsync(postIds, COMMENTS_PER_THREAD);
+
+        System.out.printf("%nComment ingestion, %d threads x %d comments:%n", THREADS, COMMENTS_PER_THREAD);
+        System.out.printf("  sync : %,10.0f comments/s%n", syncRate);
+        System.out.printf("  async: %,10.0f comments/s (%.1fx)%n%n", asyncRate, asyncRate / syncRate);
+
+        // Both paths must have kept the denormalized counts exact.
+        long stored = jdbcTemplate.queryForObject("select sum(comment_count) from post", Long.class);
+        long actual = jdbcTemplate.queryForObject("select count(*) from comment", Long.class);
+        assertEquals(actual, stored);
+    }
+
+    private List<Long> createPosts() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < POSTS; i++) {
+            Post post = new Post();
+            post.setTitle("Viral post " + i);
+            post.setContent("Everybody is talking about this.");
+            ids.add(postService.savePost(post).getId());
+        }
+        return ids;
+    }
+
+    private double runSync(List<Long> postIds, int perThread) throws Exception {
+        return run(perThread, (thread, i) ->
+                commentService.saveComment(postIds.get((thread + i) % POSTS), "admin", comment(i)));
+    }
+
+    private double runAsync(List<Long> postIds, int perThread) throws Exception {
+        return run(perThread, (thread, i) ->
+                commentIngestion.submit(postIds.get((thread + i) % POSTS), "admin", comment(i)));
+    }
+
+    /**
+     * Submits THREADS x perThread comments and returns comments per second, measured until
+     * all of them are committed (for the async path this includes draining the queue).
+     */
+    private double run(int perThread, Submission submission) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(clients.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    submission.submit(thread, i);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        assertTrue(commentIngestion.awaitEmpty(Duration.ofMinutes(1)));
+        long elapsed = System.nanoTime() - start;
+        clients.shutdown();
+        return THREADS * (double) perThread / (elapsed / 1e9);
+    }
+
+    private static CommentDto comment(int i) {
+        CommentDto dto = new CommentDto();
+        dto.setContent("Comment number " + i);
+        return dto;
+    }
+
+    @FunctionalInterface
+    private interface Submission {
+        void submit(int thread, int i);
+    }
+}
@@ -0,0 +1,106 @@
+package com.blogplatform.simpleblogplatform.benchmark;
+
+import com.blogplatform.simpleblogplatform.dto.TransferStats;
+import com.blogplatform.simpleblogplatform.service.PostTransferService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Exports and re-imports a small and a ten times larger blog and reports the throughput and
+ * the extra heap the transfer kept alive. If the export and import really stream, the
+ * heap figure stays about the same for both sizes. Run with: mvn test -Pbenchmark
+ *
+ * The heap figure comes from HeapSampler, so it leaves out both short-lived garbage and
+ * the imported rows, which the in-memory database keeps on the same heap.
+ *
+ * H2 only streams a query result with LAZY_QUERY_EXECUTION, as in application.properties;
+ * otherwise it builds the whole result in memory before returning the first row.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transfer-benchmark;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=TRUE",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@DirtiesContext
+class ExportImportBenchmarkTests {
+
+    private static final int COMMENTS_PER_POST = 4;
+
+    @Autowired
+    private PostTransferService transferService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void heapStaysFlatAsTheBlogGrows() throws Exception {
+        System.out.printf("%n%-8s %-7s %10s %12s %14s%n", "posts", "phase", "rows", "rows/s", "retained heap");
+        for (int posts : new int[]{10_000, 100_000}) {
+            seed(posts);
+            Path file = Files.createTempFile("blog-export", ".ndjson");
+            try {
+                TransferStats[] exported = new TransferStats[1];
+                long exportHeap = HeapSampler.retainedHeapDuring(() -> {
+                    try (OutputStream out = Files.newOutputStream(file)) {
+                        exported[0] = transferService.exportTo(out);
+                    }
+                });
+                assertEquals(posts, exported[0].posts());
+                print(posts, "export", exported[0], exportHeap);
+
+                clear();
+                TransferStats[] imported = new TransferStats[1];
+                long importHeap = HeapSampler.retainedHeapDuring(() -> {
+                    try (InputStream in = Files.newInputStream(file)) {
+                        imported[0] = transferService.importFrom(in);
+                    }
+                });
+                assertEquals(exported[0].rows(), imported[0].rows());
+                print(posts, "import", imported[0], importHeap);
+            } finally {
+                Files.delete(file);
+                clear();
+            }
+        }
+        System.out.println();
+    }
+
+    private void seed(int posts) {
+        jdbcTemplate.update("insert into users (username, password, role) " +
+                "select concat('bench', x), 'x', 'USER' from system_range(1, 500)");
+        jdbcTemplate.update("insert into post (title, content, excerpt, created_at, updated_at, comment_count, " +
+                        "view_count, version, user_id) " +
+                        "select concat('Post ', x), repeat('Lorem ipsum dolor sit amet. ', 8), 'Lorem ipsum', " +
+                        "timestamp '2024-01-01 00:00:00' + x * interval '1' minute, null, ?, 0, 0, " +
+                        "(select min(id) from users where username like 'bench%') + mod(x, 500) from system_range(1, ?)",
+                COMMENTS_PER_POST, posts);
+        jdbcTemplate.update("insert into comment (id, content, created_at, post_id, user_id) " +
+                        "select next value for comment_seq, 'A comment', timestamp '2024-06-01 00:00:00', " +
+                        "(select min(id) from post) + mod(x, ?), " +
+                        "(select min(id) from users where username like 'bench%') + mod(x, 500) " +
+                        "from system_range(1, ?)",
+                posts, posts * COMMENTS_PER_POST);
+    }
+
+    private void clear() {
+        jdbcTemplate.update("delete from comment");
+        jdbcTemplate.update("delete from post");
+        jdbcTemplate.update("delete from users where username <> 'admin'");
+    }
+
+    private static void print(int posts, String phase, TransferStats stats, long heapBytes) {
+        System.out.printf("%-8d %-7s %,10d %,12d %,11.1f MB%n",
+                posts, phase, stats.rows(), stats.rowsPerSecond(), heapBytes / 1024.0 / 1024.0);
+    }
+}
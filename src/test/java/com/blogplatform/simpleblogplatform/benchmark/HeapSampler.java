@@ -0,0 +1,56 @@
+package com.blogplatform.simpleblogplatform.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how much heap a task kept alive while it ran: the highest live heap seen after
+ * any garbage collection during the task, minus the live heap before or after it
+ * (whichever is larger). Garbage that was never retained does not count, and neither does
+ * data the task leaves behind on purpose (such as rows in the in-memory database).
+ */
+final class HeapSampler {
+
+    interface Task {
+        void run() throws Exception;
+    }
+
+    private HeapSampler() {
+    }
+
+    static long retainedHeapDuring(Task task) throws Exception {
+        System.gc();
+        long baseline = liveHeapAfterLastGc();
+        AtomicLong peak = new AtomicLong(baseline);
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(liveHeapAfterLastGc(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        try {
+            task.run();
+        } finally {
+            sampler.interrupt();
+            sampler.join();
+        }
+        System.gc();
+        return Math.max(0, peak.get() - Math.max(baseline, liveHeapAfterLastGc()));
+    }
+
+    private static long liveHeapAfterLastGc() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null) {
+                used += pool.getCollectionUsage().getUsed();
+            }
+        }
+        return used;
+    }
+}
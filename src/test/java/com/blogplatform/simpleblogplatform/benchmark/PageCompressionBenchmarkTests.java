@@ -0,0 +1,171 @@
+package com.blogplatform.simpleblogplatform.benchmark;
+
+import com.blogplatform.simpleblogplatform.cache.CompressedPageCache;
+import com.blogplatform.simpleblogplatform.cache.PageCompressionFilter;
+import com.blogplatform.simpleblogplatform.dto.CommentDto;
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.model.User;
+import com.blogplatform.simpleblogplatform.repository.UserRepository;
+import com.blogplatform.simpleblogplatform.service.CommentService;
+import com.blogplatform.simpleblogplatform.service.PostService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.DefaultMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Compares the three "blog.compression.mode" settings on the same mix of anonymous page
+ * views (the home feed and post pages, requested with "Accept-Encoding: gzip"):
+ *
+ * - bytes sent per response, and the share saved compared with no compression;
+ * - CPU time per request of the whole request, measured on the request thread;
+ * - CPU time per request spent compressing (blog.compression.time).
+ *
+ * Each mode gets its own filter instance and cache. Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:compression-benchmark;DB_CLOSE_DELAY=-1")
+@DirtiesContext
+class PageCompressionBenchmarkTests {
+
+    private static final int POSTS = 50;
+    private static final int REQUESTS = 5_000;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cachedCompressionCostsLessCpuThanDynamic() throws Exception {
+        List<String> pages = seed();
+
+        SimpleMeterRegistry dynamicMeters = new SimpleMeterRegistry();
+        PageCompressionFilter dynamicFilter = new PageCompressionFilter(null, dynamicMeters, 1024);
+        SimpleMeterRegistry cachedMeters = new SimpleMeterRegistry();
+        PageCompressionFilter cachedFilter = new PageCompressionFilter(
+                new CompressedPageCache(cachedMeters, 16 * 1024 * 1024), cachedMeters, 1024);
+
+        // The first round only warms up the JIT for all three modes.
+        Result off = null;
+        Result dynamic = null;
+        Result cached = null;
+        for (int round = 0; round < 2; round++) {
+            off = measure("off", pages, null, null);
+            dynamic = measure("dynamic", pages, dynamicMeters, dynamicFilter);
+            cached = measure("cached", pages, cachedMeters, cachedFilter);
+        }
+
+        System.out.printf("%n%d requests over %d pages%n", REQUESTS, pages.size());
+        System.out.printf("%-8s %12s %8s %18s %22s%n", "mode", "bytes/resp", "saved", "CPU us/request", "compressing us/request");
+        for (Result result : List.of(off, dynamic, cached)) {
+            System.out.printf("%-8s %,12d %7.1f%% %18.1f %22.1f%n", result.mode, result.bytesPerResponse,
+                    100.0 * (off.bytesPerResponse - result.bytesPerResponse) / off.bytesPerResponse,
+                    result.cpuMicrosPerRequest, result.compressionMicrosPerRequest);
+        }
+        System.out.println();
+
+        assertTrue(cached.bytesPerResponse <= dynamic.bytesPerResponse);
+        assertTrue(cached.compressionMicrosPerRequest < dynamic.compressionMicrosPerRequest);
+        // Pages are compressed again only for new versions.
+        assertTrue(cachedMeters.get("blog.compression.cache.requests").tag("result", "miss").counter().count()
+                < REQUESTS / 10.0);
+    }
+
+    private record Result(String mode, long bytesPerResponse, double cpuMicrosPerRequest,
+                          double compressionMicrosPerRequest) {
+    }
+
+    private Result measure(String mode, List<String> pages, MeterRegistry meters, Filter filter) throws Exception {
+        DefaultMockMvcBuilder builder = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity());
+        if (filter != null) {
+            builder.addFilters(filter);
+        }
+        MockMvc mockMvc = builder.build();
+
+        // Warm up (and, in cached mode, fill the cache) with one pass over all pages.
+        for (String page : pages) {
+            fetch(mockMvc, page);
+        }
+        Timer compression = meters == null ? null : meters.get("blog.compression.time").timer();
+        double compressionBefore = compression == null ? 0 : compression.totalTime(TimeUnit.NANOSECONDS);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long bytes = 0;
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            bytes += fetch(mockMvc, pages.get(i % pages.size())).getContentAsByteArray().length;
+        }
+        long cpu = threads.getCurrentThreadCpuTime() - cpuBefore;
+        double compressionNanos = compression == null ? 0
+                : compression.totalTime(TimeUnit.NANOSECONDS) - compressionBefore;
+        return new Result(mode, bytes / REQUESTS, cpu / 1_000.0 / REQUESTS, compressionNanos / 1_000.0 / REQUESTS);
+    }
+
+    private static MockHttpServletResponse fetch(MockMvc mockMvc, String page) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get(page).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+        assertEquals(200, response.getStatus());
+        return response;
+    }
+
+    /**
+     * Creates posts of a few kilobytes with a handful of comments each.
+     *
+     * @return The pages to request: the home feed and every post page.
+     */
+    private List<String> seed() {
+        jdbcTemplate.update("insert into users (username, password, role) values ('bench-author', 'x', 'USER')");
+        User author = userRepository.findByUsername("bench-author").orElseThrow();
+        List<String> pages = new ArrayList<>();
+        pages.add("/");
+        for (int i = 0; i < POSTS; i++) {
+            Post post = new Post();
+            post.setTitle("Benchmark post " + i);
+            post.setContent(("## Section\n\nParagraph " + i + " of a longer article, with *emphasis*, "
+                    + "a [link](https://example.com/" + i + ") and some `code`.\n\n").repeat(30));
+            post.setUser(author);
+            long id = postService.savePost(post).getId();
+            for (int c = 0; c < 5; c++) {
+                CommentDto comment = new CommentDto();
+                comment.setContent("Comment " + c + " on post " + i + ": thanks for writing this up.");
+                commentService.saveComment(id, "bench-author", comment);
+            }
+            pages.add("/posts/" + id);
+        }
+        return pages;
+    }
+}
@@ -0,0 +1,12 @@
+package com.blogplatform.simpleblogplatform.benchmark;
+
+/**
+ * Load benchmark with the default Tomcat pool of platform worker threads.
+ */
+class PlatformThreadLoadBenchmarkTests extends AbstractLoadBenchmark {
+
+    @Override
+    protected String mode() {
+        return "platform threads";
+    }
+}
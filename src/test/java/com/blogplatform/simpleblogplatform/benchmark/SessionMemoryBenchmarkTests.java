@@ -0,0 +1,115 @@
+package com.blogplatform.simpleblogplatform.benchmark;
+
+import com.blogplatform.simpleblogplatform.security.SignedCookieSecurityContextRepository;
+import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.session.StandardManager;
+import org.apache.catalina.session.StandardSession;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.security.web.csrf.HttpSessionCsrfTokenRepository;
+
+import jakarta.servlet.http.Cookie;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Compares the server memory needed for 10k logged-in users in the two session modes
+ * ("blog.session.mode"). Run with: mvn test -Pbenchmark
+ *
+ * Server mode: 10k Tomcat sessions, each holding what a login leaves behind (the
+ * SecurityContext with the user's details and the CSRF token), kept by a session manager
+ * like in the running server. Heap usage is compared before and after, after a full GC.
+ * Cookie mode keeps nothing on the server; what it costs instead is the size of the
+ * cookie on every request and the time to verify its signature.
+ */
+@Tag("benchmark")
+class SessionMemoryBenchmarkTests {
+
+    private static final int SESSIONS = 10_000;
+
+    @Test
+    void compareServerAndCookieSessions() throws Exception {
+        StandardManager manager = new StandardManager();
+        manager.setContext(new StandardContext());
+
+        long before = usedHeapAfterGc();
+        List<StandardSession> sessions = new ArrayList<>(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions.add(loggedInSession(manager, "user" + i));
+        }
+        long after = usedHeapAfterGc();
+        long bytesPerSession = (after - before) / SESSIONS;
+        assertNotNull(manager.findSession(sessions.get(0).getId()));
+
+        SignedCookieSecurityContextRepository repository = new SignedCookieSecurityContextRepository(
+                new byte[32], Duration.ofMinutes(30), Clock.systemUTC());
+        MockHttpServletRequest login = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        repository.saveContext(loggedInContext("user12345"), login, response);
+        Cookie cookie = response.getCookie(SignedCookieSecurityContextRepository.COOKIE_NAME);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(cookie);
+
+        // Warm up, then time the signature check done on every request.
+        for (int i = 0; i < 100_000; i++) {
+            repository.readToken(request);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < SESSIONS; i++) {
+            assertNotNull(repository.readToken(request));
+        }
+        double microsPerCheck = (System.nanoTime() - start) / 1_000.0 / SESSIONS;
+
+        System.out.printf("%nLogged-in users: %,d%n", SESSIONS);
+        System.out.printf("  server sessions: %,d bytes/session, %,.1f MB of heap in total%n",
+                bytesPerSession, (after - before) / 1024.0 / 1024.0);
+        System.out.printf("  signed cookie  : 0 bytes of heap; %d-byte cookie, %.1f us to verify per request%n%n",
+                (cookie.getName() + "=" + cookie.getValue()).length(), microsPerCheck);
+    }
+
+    private static StandardSession loggedInSession(StandardManager manager, String username) {
+        StandardSession session = new StandardSession(manager);
+        session.setNew(true);
+        session.setValid(true);
+        session.setCreationTime(System.currentTimeMillis());
+        session.setMaxInactiveInterval(1800);
+        session.setId(UUID.randomUUID().toString().replace("-", ""));
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, loggedInContext(username));
+        session.setAttribute(HttpSessionCsrfTokenRepository.class.getName().concat(".CSRF_TOKEN"),
+                new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", UUID.randomUUID().toString()));
+        return session;
+    }
+
+    private static SecurityContextImpl loggedInContext(String username) {
+        User user = new User(username, "", AuthorityUtils.createAuthorityList("ROLE_USER"));
+        UsernamePasswordAuthenticationToken authentication =
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("203.0.113." + (username.hashCode() & 0xff));
+        authentication.setDetails(new WebAuthenticationDetails(request));
+        return new SecurityContextImpl(authentication);
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,15 @@
+package com.blogplatform.simpleblogplatform.benchmark;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Load benchmark in the virtual-thread serving mode (the "vthreads" profile).
+ */
+@ActiveProfiles("vthreads")
+class VirtualThreadLoadBenchmarkTests extends AbstractLoadBenchmark {
+
+    @Override
+    protected String mode() {
+        return "virtual threads";
+    }
+}
@@ -0,0 +1,189 @@
+package com.blogplatform.simpleblogplatform.cache;
+
+import com.blogplatform.simpleblogplatform.dto.CommentDto;
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.model.User;
+import com.blogplatform.simpleblogplatform.repository.UserRepository;
+import com.blogplatform.simpleblogplatform.service.CommentService;
+import com.blogplatform.simpleblogplatform.service.PostService;
+import com.blogplatform.simpleblogplatform.service.ViewCounterService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Anonymous pages are compressed once per version and then served from the cache;
+ * a new comment produces a new version (written view counts do not), and conditional
+ * requests still get 304.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:page-compression;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@DirtiesContext
+class PageCompressionFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ViewCounterService viewCounterService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CompressedPageCache compressedPageCache;
+
+    @Test
+    void postPageIsCompressedOncePerVersion() throws Exception {
+        long id = createPost();
+
+        MockHttpServletResponse plain = fetch(id, null);
+        assertThat(plain.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(plain.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        String etag = plain.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse first = fetch(id, "gzip, deflate, br");
+        assertThat(first.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(first.getHeader(HttpHeaders.ETAG)).isEqualTo("W/" + etag);
+        assertThat(first.getContentAsByteArray().length).isLessThan(plain.getContentAsByteArray().length / 2);
+        assertThat(gunzip(first.getContentAsByteArray())).isEqualTo(plain.getContentAsString());
+
+        double hits = cacheHits();
+        MockHttpServletResponse second = fetch(id, "gzip");
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+        assertThat(cacheHits()).isEqualTo(hits + 1);
+
+        assertThat(mockMvc.perform(get("/posts/{id}", id).header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andReturn().getResponse().getStatus()).isEqualTo(304);
+
+        CommentDto comment = new CommentDto();
+        comment.setContent("A brand new comment");
+        commentService.saveComment(id, "compression-author", comment);
+        MockHttpServletResponse changed = fetch(id, "gzip");
+        assertThat(changed.getHeader(HttpHeaders.ETAG)).isNotEqualTo("W/" + etag);
+        assertThat(gunzip(changed.getContentAsByteArray())).contains("A brand new comment");
+    }
+
+    @Test
+    void homeFeedKeepsItsVersionWhenViewCountsAreWritten() throws Exception {
+        long id = createPost();
+        MockHttpServletResponse first = mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        viewCounterService.recordView(id);
+        viewCounterService.flush();
+
+        assertThat(mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andReturn().getResponse().getStatus()).isEqualTo(304);
+        double hits = cacheHits();
+        MockHttpServletResponse second = mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+        assertThat(cacheHits()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void unreadQueryParametersShareTheCachedPage() throws Exception {
+        createPost();
+        mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "gzip")).andReturn();
+        int entries = compressedPageCache.size();
+
+        double hits = cacheHits();
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = mockMvc.perform(get("/").param("x", String.valueOf(i))
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip")).andReturn().getResponse();
+            assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        }
+        assertThat(cacheHits()).isEqualTo(hits + 5);
+        assertThat(compressedPageCache.size()).isEqualTo(entries);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts/7");
+        request.setParameter("utm_source", "feed");
+        request.setParameter("commentPage", "2");
+        assertThat(PageCompressionFilter.pageOf(request)).isEqualTo("/posts/7?commentPage=2");
+    }
+
+    @Test
+    void pagesOfLoggedInUsersAreNotCompressed() throws Exception {
+        long id = createPost();
+        MockHttpServletResponse response = mockMvc.perform(get("/posts/{id}", id)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip").with(user("compression-reader")))
+                .andReturn().getResponse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    @Test
+    void negotiatesGzipFromAcceptEncoding() {
+        assertThat(PageCompressionFilter.acceptsGzip("gzip")).isTrue();
+        assertThat(PageCompressionFilter.acceptsGzip("br;q=1.0, gzip;q=0.8")).isTrue();
+        assertThat(PageCompressionFilter.acceptsGzip("*")).isTrue();
+        assertThat(PageCompressionFilter.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(PageCompressionFilter.acceptsGzip("identity")).isFalse();
+        assertThat(PageCompressionFilter.acceptsGzip(null)).isFalse();
+    }
+
+    private MockHttpServletResponse fetch(long id, String acceptEncoding) throws Exception {
+        var request = get("/posts/{id}", id);
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        return response;
+    }
+
+    private long createPost() {
+        User author = userRepository.findByUsername("compression-author").orElseGet(() -> {
+            jdbcTemplate.update("insert into users (username, password, role) values ('compression-author', 'x', 'USER')");
+            return userRepository.findByUsername("compression-author").orElseThrow();
+        });
+        Post post = new Post();
+        post.setTitle("A post worth compressing");
+        post.setContent("Some **Markdown** that repeats itself, as pages do. ".repeat(100));
+        post.setUser(author);
+        return postService.savePost(post).getId();
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("blog.compression.cache.requests").tag("result", "hit").counter().count();
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
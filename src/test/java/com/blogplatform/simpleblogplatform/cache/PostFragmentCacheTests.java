@@ -0,0 +1,61 @@
+package com.blogplatform.simpleblogplatform.cache;
+
+import com.blogplatform.simpleblogplatform.event.PostChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostFragmentCacheTests {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final PostFragmentCache cache = new PostFragmentCache(meters, 1024 * 1024);
+
+    @Test
+    void lookupsDoNotGrowTheVersionMap() {
+        for (long id = 1; id <= 10_000; id++) {
+            assertThat(cache.get(id, 0)).isNull();
+        }
+
+        assertThat(trackedVersions()).isZero();
+    }
+
+    @Test
+    void changesMoveAPostToANewVersion() {
+        long before = cache.version(1L);
+        cache.put(1L, before, 0, fragments("v1"));
+        assertThat(cache.get(1L, 0)).isNotNull();
+
+        cache.onPostChanged(new PostChangedEvent(1L, PostChangedEvent.Change.SAVED));
+
+        assertThat(cache.get(1L, 0)).isNull();
+        cache.put(1L, before, 0, fragments("stale"));
+        assertThat(cache.get(1L, 0)).isNull();
+        cache.put(1L, cache.version(1L), 0, fragments("v2"));
+        assertThat(cache.get(1L, 0).title()).isEqualTo("v2");
+    }
+
+    @Test
+    void deletedPostsAreForgottenAndStaleRendersRejected() {
+        cache.onPostChanged(new PostChangedEvent(1L, PostChangedEvent.Change.SAVED));
+        long renderedBeforeDelete = cache.version(1L);
+        long neverChangedBeforeDelete = cache.version(2L);
+
+        cache.onPostChanged(new PostChangedEvent(1L, PostChangedEvent.Change.DELETED));
+
+        assertThat(trackedVersions()).isZero();
+        cache.put(1L, renderedBeforeDelete, 0, fragments("deleted"));
+        cache.put(2L, neverChangedBeforeDelete, 0, fragments("deleted"));
+        assertThat(cache.get(1L, 0)).isNull();
+        assertThat(cache.get(2L, 0)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    private double trackedVersions() {
+        return meters.get("blog.page.cache.versions").gauge().value();
+    }
+
+    private static PostFragmentCache.Fragments fragments(String title) {
+        return new PostFragmentCache.Fragments(title, "<article>" + title + "</article>", "<ul></ul>");
+    }
+}
@@ -0,0 +1,80 @@
+package com.blogplatform.simpleblogplatform.config;
+
+import com.blogplatform.simpleblogplatform.render.PostContentRenderer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds two separate databases with the same settings but different numbers of threads
+ * and checks that they end up identical, and that the data has the intended shape.
+ */
+class DataSeederTests {
+
+    private static final int USERS = 50;
+    private static final int POSTS = 400;
+    private static final int COMMENTS = 5_000;
+
+    @Test
+    void sameSeedGivesTheSameDatabaseWithAnyNumberOfThreads() throws Exception {
+        JdbcTemplate single = seed("seed-single", 1);
+        JdbcTemplate parallel = seed("seed-parallel", 4);
+
+        // The password hash is salted, so it is the one column that differs.
+        for (String query : List.of(
+                "select id, username, role from users order by id",
+                "select * from post order by id",
+                "select * from comment order by id")) {
+            assertThat(digest(parallel, query)).as(query).isEqualTo(digest(single, query));
+        }
+
+        assertThat(single.queryForObject("select count(*) from users", Long.class)).isEqualTo(USERS + 1L);
+        assertThat(single.queryForObject("select count(*) from post", Long.class)).isEqualTo(POSTS);
+        assertThat(single.queryForObject("select count(*) from comment", Long.class)).isEqualTo(COMMENTS);
+        assertThat(single.queryForObject("select sum(comment_count) from post", Long.class)).isEqualTo(COMMENTS);
+
+        // Zipf-skewed: the hottest post has many times the average, most posts have few.
+        long hottest = single.queryForObject("select max(comment_count) from post", Long.class);
+        long belowAverage = single.queryForObject(
+                "select count(*) from post where comment_count < ?", Long.class, COMMENTS / POSTS);
+        assertThat(hottest).isGreaterThan(20L * COMMENTS / POSTS);
+        assertThat(belowAverage).isGreaterThan(POSTS / 2);
+
+        // The ID generators continue after the seeded rows.
+        single.update("insert into post (title, comment_count, view_count) values ('new', 0, 0)");
+        assertThat(single.queryForObject("select max(id) from post", Long.class)).isEqualTo(POSTS + 1L);
+        assertThat(single.queryForObject("select next value for comment_seq", Long.class))
+                .isGreaterThan(COMMENTS + 49L);
+    }
+
+    private static JdbcTemplate seed(String database, int threads) throws Exception {
+        String url = "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // Stands in for the admin that DataInitializer creates first.
+        jdbcTemplate.update("insert into users (username, password, role) values ('admin', 'x', 'ADMIN')");
+        new DataSeeder(jdbcTemplate, new DataSourceTransactionManager(dataSource), new BCryptPasswordEncoder(4),
+                new PostContentRenderer(),
+                USERS, POSTS, COMMENTS, 1.1, 1.0, 7, threads, 64, "password").seed();
+        return jdbcTemplate;
+    }
+
+    private static String digest(JdbcTemplate jdbcTemplate, String query) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        for (Map<String, Object> row : jdbcTemplate.queryForList(query)) {
+            digest.update(row.toString().getBytes());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
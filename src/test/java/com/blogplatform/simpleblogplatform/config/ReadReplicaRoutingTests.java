@@ -0,0 +1,119 @@
+package com.blogplatform.simpleblogplatform.config;
+
+import com.blogplatform.simpleblogplatform.dto.PostSummary;
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.service.PostService;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Read/write routing against two separate in-memory H2 databases standing in for the
+ * primary and the replica. "Replication" is done by hand, by copying the primary into
+ * the replica with H2's SCRIPT command, so each test controls exactly what the replica
+ * has seen. The second-level cache is off, so that every read reaches a database.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "blog.datasource.replica.url=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class ReadReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    /**
+     * A real replica has the schema before the application starts, and the startup tasks
+     * (search index, title suggestions) already read from it.
+     */
+    @BeforeAll
+    static void createReplicaSchema() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndWritesThePrimary() {
+        Post replicated = postService.savePost(newPost("Replicated post"));
+        replicate();
+        Post recent = postService.savePost(newPost("Not yet replicated post"));
+
+        assertThat(titlesIn(primary)).contains("Replicated post", "Not yet replicated post");
+        assertThat(feedTitles()).contains("Replicated post").doesNotContain("Not yet replicated post");
+        assertThat(postService.findSummariesByIds(List.of(replicated.getId(), recent.getId())))
+                .extracting(PostSummary::id).containsExactly(replicated.getId());
+    }
+
+    @Test
+    void readsStayOnThePrimaryRightAfterAWrite() throws Exception {
+        replicate();
+        postService.savePost(newPost("Fresh post"));
+
+        // Any POST (here a registration) opens the read-your-writes window.
+        Cookie window = mockMvc.perform(post("/register")
+                        .param("username", "routing-writer").param("password", "secret").with(csrf()))
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(window).isNotNull();
+
+        String withWindow = mockMvc.perform(get("/").cookie(window)).andReturn().getResponse().getContentAsString();
+        String withoutWindow = mockMvc.perform(get("/")).andReturn().getResponse().getContentAsString();
+        assertThat(withWindow).contains("Fresh post");
+        assertThat(withoutWindow).doesNotContain("Fresh post");
+    }
+
+    private List<String> feedTitles() {
+        return postService.findFeedPage(null, null).posts().stream().map(PostSummary::title).toList();
+    }
+
+    private static List<String> titlesIn(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForList("select title from post", String.class);
+    }
+
+    /**
+     * Replaces the replica's contents with a copy of the primary.
+     */
+    private void replicate() {
+        List<String> script = new JdbcTemplate(primary).queryForList("script", String.class);
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("drop all objects");
+        script.forEach(replicaJdbc::execute);
+    }
+
+    private static Post newPost(String title) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent("Routing test content");
+        return post;
+    }
+}
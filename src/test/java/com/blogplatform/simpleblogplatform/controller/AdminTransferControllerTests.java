@@ -0,0 +1,147 @@
+package com.blogplatform.simpleblogplatform.controller;
+
+import com.blogplatform.simpleblogplatform.dto.CommentDto;
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.repository.UserRepository;
+import com.blogplatform.simpleblogplatform.service.CommentService;
+import com.blogplatform.simpleblogplatform.service.PostService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * An export can be imported again: posts get new IDs, their comments follow them, and
+ * authors that do not exist yet are created. Both endpoints are for admins only.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:transfer;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@DirtiesContext
+class AdminTransferControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importedExportRemapsPostsCommentsAndAuthors() throws Exception {
+        jdbcTemplate.update("insert into users (username, password, role) values ('transfer-author', 'x', 'USER')");
+        jdbcTemplate.update("insert into users (username, password, role) values ('transfer-reader', 'x', 'USER')");
+        long first = createPost("Transfer first", "transfer-author");
+        long second = createPost("Transfer second", null);
+        comment(first, "Comment on first");
+        comment(second, "Comment on second");
+        comment(second, "Another comment on second");
+
+        String export = mockMvc.perform(get("/admin/export").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(export.lines()).hasSize(2);
+
+        // Imported into a blog that does not know the post's author yet.
+        String ndjson = export.replace("\"transfer-author\"", "\"transfer-newcomer\"");
+        mockMvc.perform(post("/admin/import").with(user("admin").roles("ADMIN")).with(csrf())
+                        .contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.posts").value(2))
+                .andExpect(jsonPath("$.comments").value(3));
+
+        Map<String, Object> importedFirst = importedPost("Transfer first", first);
+        Map<String, Object> importedSecond = importedPost("Transfer second", second);
+        assertThat(commentsOf(importedFirst.get("ID"))).containsExactly("Comment on first");
+        assertThat(commentsOf(importedSecond.get("ID")))
+                .containsExactlyInAnyOrder("Comment on second", "Another comment on second");
+        assertThat(importedSecond.get("COMMENT_COUNT")).isEqualTo(2L);
+
+        assertThat(userRepository.findByUsername("transfer-newcomer")).hasValueSatisfying(author -> {
+            assertThat(author.getRole()).isEqualTo("USER");
+            assertThat(importedFirst.get("USER_ID")).isEqualTo(author.getId());
+        });
+        assertThat(importedSecond.get("USER_ID")).isNull();
+    }
+
+    @Test
+    void malformedLineIsRejectedWithItsNumber() throws Exception {
+        String ndjson = "{\"title\":\"Fine\",\"content\":\"Fine\",\"comments\":[]}\n"
+                + "{\"title\":\"Broken\",\"content\":oops,\"comments\":[]}\n"
+                + "{\"title\":\"Fine too\",\"content\":\"Fine\",\"comments\":[]}\n";
+
+        mockMvc.perform(post("/admin/import").with(user("admin").roles("ADMIN")).with(csrf())
+                        .contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Line 2")));
+    }
+
+    @Test
+    void onlyAdminsMayTransfer() throws Exception {
+        mockMvc.perform(get("/admin/export"))
+                .andExpect(status().is3xxRedirection());
+        mockMvc.perform(get("/admin/export").with(user("reader")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/admin/import").with(user("reader")).with(csrf())
+                        .contentType(MediaType.APPLICATION_NDJSON).content("{\"title\":\"Sneaky\"}\n"))
+                .andExpect(status().isForbidden());
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from post where title = 'Sneaky'", Long.class))
+                .isZero();
+    }
+
+    /**
+     * Returns the imported copy of a post, which has the same title but a new ID.
+     */
+    private Map<String, Object> importedPost(String title, long originalId) {
+        List<Map<String, Object>> copies = jdbcTemplate.queryForList(
+                "select id, user_id, comment_count from post where title = ? and id <> ?", title, originalId);
+        assertThat(copies).hasSize(1);
+        return copies.get(0);
+    }
+
+    private List<String> commentsOf(Object postId) {
+        return jdbcTemplate.queryForList("select content from comment where post_id = ?", String.class, postId);
+    }
+
+    private long createPost(String title, String author) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent("Content of " + title);
+        if (author != null) {
+            post.setUser(userRepository.findByUsername(author).orElseThrow());
+        }
+        return postService.savePost(post).getId();
+    }
+
+    private void comment(long postId, String content) {
+        CommentDto comment = new CommentDto();
+        comment.setContent(content);
+        commentService.saveComment(postId, "transfer-reader", comment);
+    }
+}
@@ -0,0 +1,124 @@
+package com.blogplatform.simpleblogplatform.controller;
+
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.monitoring.QueryBudget;
+import com.blogplatform.simpleblogplatform.service.PostService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The Atom feed follows saves and deletes without a reload and is served from memory;
+ * the sitemap is split into files by ID range. Both answer conditional requests with 304.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:feeds;DB_CLOSE_DELAY=-1",
+        "blog.atom.entries=2",
+        "blog.sitemap.urls-per-file=3",
+        "blog.site.url=https://blog.example/"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class FeedControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Test
+    void atomFeedKeepsTheNewestPosts() throws Exception {
+        long first = createPost("First & oldest");
+        long second = createPost("Second");
+        long third = createPost("Third <newest>");
+
+        MvcResult feed = mockMvc.perform(get("/feed.atom"))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(0))
+                .andReturn();
+        assertThat(feed.getResponse().getContentType()).startsWith("application/atom+xml");
+        // Well-formed XML, or this throws.
+        DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(feed.getResponse().getContentAsByteArray()));
+        assertThat(feed.getResponse().getContentAsString())
+                .contains("<title>Third &lt;newest&gt;</title>", "<id>https://blog.example/posts/" + third + "</id>")
+                .contains("https://blog.example/posts/" + second)
+                .doesNotContain("https://blog.example/posts/" + first + "<");
+
+        String etag = feed.getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/feed.atom").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // Deleting from the full window brings the next older post back in.
+        postService.deletePostById(third);
+        MvcResult changed = mockMvc.perform(get("/feed.atom").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(changed.getResponse().getContentAsString())
+                .contains("<title>First &amp; oldest</title>")
+                .doesNotContain("Third");
+    }
+
+    @Test
+    void sitemapListsEveryPostInFilesOfIdRanges() throws Exception {
+        long id = createPost("In the sitemap");
+
+        MvcResult index = mockMvc.perform(get("/sitemap.xml"))
+                .andExpect(status().isOk())
+                .andReturn();
+        long files = id / 3 + 1;
+        assertThat(index.getResponse().getContentAsString())
+                .contains("<loc>https://blog.example/sitemap-posts-0.xml</loc>")
+                .contains("<loc>https://blog.example/sitemap-posts-" + (files - 1) + ".xml</loc>")
+                .doesNotContain("sitemap-posts-" + files + ".xml");
+
+        MvcResult file = mockMvc.perform(get("/sitemap-posts-{file}.xml", id / 3))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(1))
+                .andReturn();
+        assertThat(file.getResponse().getContentAsString())
+                .contains("<url><loc>https://blog.example/posts/" + id + "</loc><lastmod>");
+
+        String etag = file.getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/sitemap-posts-{file}.xml", id / 3).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(QueryBudget.atMost(0));
+
+        createPost("Changes the sitemap");
+        mockMvc.perform(get("/sitemap-posts-{file}.xml", id / 3).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void sitemapFilesPastTheLastOneAreNotFound() throws Exception {
+        long id = createPost("Last in the sitemap");
+        long lastFile = id / 3;
+
+        mockMvc.perform(get("/sitemap-posts-{file}.xml", lastFile))
+                .andExpect(status().isOk());
+        for (long file : new long[]{lastFile + 1, Long.MAX_VALUE / 2, Long.MAX_VALUE, -1}) {
+            mockMvc.perform(get("/sitemap-posts-{file}.xml", file))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    private long createPost(String title) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent("Content of " + title);
+        return postService.savePost(post).getId();
+    }
+}
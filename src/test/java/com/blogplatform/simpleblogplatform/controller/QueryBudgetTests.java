@@ -0,0 +1,119 @@
+package com.blogplatform.simpleblogplatform.controller;
+
+import com.blogplatform.simpleblogplatform.monitoring.QueryBudget;
+import com.blogplatform.simpleblogplatform.monitoring.RequestStatisticsFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Holds the main pages to a fixed number of SQL statements. A post with many comments
+ * (from many different users) must cost exactly as many statements as one with a single
+ * comment; a lazy load in a template or a per-row query in a service breaks that.
+ *
+ * The second-level cache is off and every post is requested for the first time (so the
+ * fragment cache misses), which makes these the worst-case counts.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "blog.request-stats.header=true"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class QueryBudgetTests {
+
+    // Anonymous: conditional-GET validator, post with its author, one page of comments
+    // with their authors, and the comment count.
+    private static final int POST_PAGE_BUDGET = 4;
+    private static final int HOME_PAGE_BUDGET = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void postPageCostsTheSameWhateverTheNumberOfComments() throws Exception {
+        long quiet = createPost("Quiet post", 1);
+        long busy = createPost("Busy post", 60);
+        long busyForUser = createPost("Busy post for a logged-in user", 60);
+
+        int quietStatements = QueryBudget.statementsOf(perform(get("/posts/{id}", quiet)));
+        int busyStatements = QueryBudget.statementsOf(perform(get("/posts/{id}", busy)));
+        assertThat(busyStatements).isEqualTo(quietStatements);
+
+        perform(get("/posts/{id}", busy).queryParam("commentPage", "2"), QueryBudget.atMost(POST_PAGE_BUDGET));
+        perform(get("/posts/{id}", busyForUser).with(user("budget-reader")), QueryBudget.atMost(POST_PAGE_BUDGET));
+        perform(get("/posts/{id}", quiet), QueryBudget.atMost(POST_PAGE_BUDGET));
+    }
+
+    @Test
+    void homeAndAuthPagesStayWithinBudget() throws Exception {
+        createPost("Feed post", 5);
+        perform(get("/"), QueryBudget.atMost(HOME_PAGE_BUDGET));
+        perform(get("/login"), QueryBudget.atMost(0));
+        perform(get("/register"), QueryBudget.atMost(0));
+    }
+
+    @Test
+    void archiveIsOneStatementWhateverTheNumberOfPosts() throws Exception {
+        createPost("Archived post", 2);
+        createPost("Another archived post", 0);
+        MvcResult result = perform(get("/posts/archive"), QueryBudget.atMost(1));
+        assertThat(result.getResponse().getContentAsString()).contains("Archived post", "Another archived post");
+    }
+
+    @Test
+    void statisticsAreSentAsServerTimingHeader() throws Exception {
+        long id = createPost("Timed post", 3);
+        mockMvc.perform(get("/posts/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RequestStatisticsFilter.HEADER_NAME,
+                        matchesPattern("db;dur=[0-9.]+;desc=\"\\d+ statements\", render;dur=[0-9.]+")));
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request, ResultMatcher... matchers) throws Exception {
+        ResultActions actions = mockMvc.perform(request).andExpect(status().isOk());
+        for (ResultMatcher matcher : matchers) {
+            actions.andExpect(matcher);
+        }
+        return actions.andReturn();
+    }
+
+    /**
+     * Inserts a post with the given number of comments, each by a different user.
+     */
+    private long createPost(String title, int comments) {
+        jdbcTemplate.update("insert into users (username, password, role) values (?, 'x', 'USER')", title);
+        Long authorId = jdbcTemplate.queryForObject("select id from users where username = ?", Long.class, title);
+        jdbcTemplate.update("insert into post (title, content, excerpt, created_at, comment_count, view_count, " +
+                "version, user_id) values (?, 'Content', 'Content', current_timestamp, ?, 0, 0, ?)",
+                title, comments, authorId);
+        Long postId = jdbcTemplate.queryForObject("select max(id) from post", Long.class);
+        for (int i = 0; i < comments; i++) {
+            jdbcTemplate.update("insert into users (username, password, role) values (?, 'x', 'USER')",
+                    title + " commenter " + i);
+            jdbcTemplate.update("insert into comment (id, content, created_at, post_id, user_id) " +
+                    "values (next value for comment_seq, 'A comment', current_timestamp, ?, " +
+                    "(select id from users where username = ?))", postId, title + " commenter " + i);
+        }
+        return postId;
+    }
+}
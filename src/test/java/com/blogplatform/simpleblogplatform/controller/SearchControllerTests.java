@@ -0,0 +1,70 @@
+package com.blogplatform.simpleblogplatform.controller;
+
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.service.PostService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The search index follows committed saves and deletes, and out-of-range pages are
+ * answered without ranking errors.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search;DB_CLOSE_DELAY=-1",
+        "blog.search.page-size=2"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class SearchControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Test
+    void savedPostsAreFoundAndDeletedOnesAreNot() throws Exception {
+        long kept = createPost("Zookeeper quorum basics");
+        long deleted = createPost("Zookeeper ensemble sizing");
+
+        mockMvc.perform(get("/search").param("q", "zookeeper"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("2 matching posts")))
+                .andExpect(content().string(containsString("/posts/" + deleted + "\"")));
+
+        postService.deletePostById(deleted);
+        mockMvc.perform(get("/search").param("q", "zookeeper"))
+                .andExpect(content().string(containsString("1 matching posts")))
+                .andExpect(content().string(containsString("/posts/" + kept + "\"")))
+                .andExpect(content().string(not(containsString("/posts/" + deleted + "\""))));
+    }
+
+    @Test
+    void pagesOutOfRange() throws Exception {
+        createPost("Kafka one");
+
+        mockMvc.perform(get("/search").param("q", "kafka").param("page", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/search").param("q", "kafka").param("page", "300000000"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("No posts matched your search.")));
+    }
+
+    private long createPost(String title) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent("Content of " + title);
+        return postService.savePost(post).getId();
+    }
+}
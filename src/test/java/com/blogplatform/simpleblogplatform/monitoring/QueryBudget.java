@@ -0,0 +1,43 @@
+package com.blogplatform.simpleblogplatform.monitoring;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockMvc expectations on the number of SQL statements a request executed, as counted by
+ * RequestStatisticsFilter:
+ *
+ *     mockMvc.perform(get("/posts/{id}", id)).andExpect(QueryBudget.atMost(4));
+ *
+ * The MockMvc instance must include the application's filters (@AutoConfigureMockMvc does).
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    /**
+     * Fails if the request executed more than {@code maxStatements} statements.
+     */
+    public static ResultMatcher atMost(int maxStatements) {
+        return result -> assertThat(statementsOf(result))
+                .as("SQL statements executed by %s %s", result.getRequest().getMethod(),
+                        result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(maxStatements);
+    }
+
+    /**
+     * The statistics of a request performed with MockMvc.
+     */
+    public static RequestStatistics statisticsOf(MvcResult result) {
+        Object statistics = result.getRequest().getAttribute(RequestStatistics.ATTRIBUTE);
+        assertThat(statistics).as("request statistics (is RequestStatisticsFilter installed?)").isNotNull();
+        return (RequestStatistics) statistics;
+    }
+
+    public static int statementsOf(MvcResult result) {
+        return statisticsOf(result).getStatements();
+    }
+}
@@ -0,0 +1,132 @@
+package com.blogplatform.simpleblogplatform.render;
+
+import com.blogplatform.simpleblogplatform.dto.PostSummary;
+import com.blogplatform.simpleblogplatform.repository.PostRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.thymeleaf.ITemplateEngine;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A client that goes away in the middle of the streamed archive page must not keep the
+ * cursor (and its connection) reading the whole posts table.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=TRUE"
+})
+@DirtiesContext
+class PostArchiveRendererTests {
+
+    private static final int POSTS = 1_000;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void stopsReadingWhenTheClientDisconnects() throws Exception {
+        jdbcTemplate.update("insert into post (title, content, excerpt, created_at, comment_count, view_count, version) " +
+                "select concat('Archived post number ', x), 'Content', 'Excerpt', " +
+                "timestamp '2020-01-01 00:00:00' + x * interval '1' minute, 0, 0, 0 from system_range(1, ?)", POSTS);
+        AtomicInteger rowsRead = new AtomicInteger();
+        AtomicBoolean cursorClosed = new AtomicBoolean();
+        PostArchiveRenderer renderer = new PostArchiveRenderer(
+                countingRows(rowsRead, cursorClosed), templateEngine, transactionManager, "streaming", 10);
+
+        renderer.stream(archiveRequest(), new DisconnectingResponse(4096));
+
+        assertThat(cursorClosed).isTrue();
+        assertThat(rowsRead.get()).isPositive().isLessThan(POSTS / 10);
+    }
+
+    private MockHttpServletRequest archiveRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest(context.getServletContext(), "GET", "/posts/archive");
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+        return request;
+    }
+
+    /**
+     * The real repository, except that the archive cursor counts its rows and notes when it is closed.
+     */
+    private PostRepository countingRows(AtomicInteger rowsRead, AtomicBoolean cursorClosed) {
+        return (PostRepository) Proxy.newProxyInstance(PostRepository.class.getClassLoader(),
+                new Class<?>[]{PostRepository.class}, (proxy, method, args) -> {
+                    try {
+                        Object result = method.invoke(postRepository, args);
+                        if (method.getName().equals("streamArchive")) {
+                            return ((Stream<PostSummary>) result)
+                                    .peek(post -> rowsRead.incrementAndGet())
+                                    .onClose(() -> cursorClosed.set(true));
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * A response whose connection breaks after a few kilobytes. Like a servlet container's
+     * writer, the PrintWriter swallows the IOException and only remembers the error.
+     */
+    private static final class DisconnectingResponse extends MockHttpServletResponse {
+
+        private final PrintWriter writer;
+
+        DisconnectingResponse(int bytesBeforeDisconnect) {
+            this.writer = new PrintWriter(new Writer() {
+                private int written;
+
+                @Override
+                public void write(char[] buffer, int offset, int length) throws IOException {
+                    written += length;
+                    if (written > bytesBeforeDisconnect) {
+                        throw new IOException("Broken pipe");
+                    }
+                }
+
+                @Override
+                public void flush() {
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            return writer;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.blogplatform.simpleblogplatform.render;
+
+import com.blogplatform.simpleblogplatform.model.Post;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostContentRendererTests {
+
+    private final PostContentRenderer renderer = new PostContentRenderer();
+
+    @Test
+    void rendersMarkdown() {
+        PostContentRenderer.RenderedContent content = renderer.render("""
+                # Title
+
+                Some *emphasis* and a [link](/posts/1).
+
+                ```java
+                int x = 1;
+                ```
+                """);
+
+        assertThat(content.html())
+                .contains("<h1>Title</h1>")
+                .contains("<em>emphasis</em>")
+                .contains("<a href=\"/posts/1\" rel=\"nofollow noopener\">link</a>")
+                .contains("<pre><code class=\"language-java\">int x = 1;");
+        assertThat(content.excerpt()).isEqualTo("Title Some emphasis and a link. int x = 1;");
+        assertThat(content.wordCount()).isEqualTo(10);
+    }
+
+    @Test
+    void keepsOnlyAllowedMarkup() {
+        PostContentRenderer.RenderedContent content = renderer.render("""
+                <p onclick="steal()">Hello <script>alert(1)</script><b style="color:red">world</b></p>
+
+                [click](javascript:alert(1)) <img src="https://example.com/a.png" onerror="steal()">
+                <iframe src="https://example.com"></iframe>
+                """);
+
+        assertThat(content.html())
+                .contains("<p>Hello <b>world</b></p>")
+                .contains("<img src=\"https://example.com/a.png\">")
+                .doesNotContain("script", "alert", "onclick", "onerror", "style", "iframe", "javascript");
+    }
+
+    @Test
+    void excerptIsCutAtAWordBoundary() {
+        PostContentRenderer.RenderedContent content = renderer.render("word ".repeat(200));
+
+        assertThat(content.excerpt()).hasSizeLessThanOrEqualTo(Post.EXCERPT_LENGTH).endsWith("word…");
+        assertThat(content.wordCount()).isEqualTo(200);
+        assertThat(renderer.render(null)).isEqualTo(new PostContentRenderer.RenderedContent("", "", 0));
+    }
+}
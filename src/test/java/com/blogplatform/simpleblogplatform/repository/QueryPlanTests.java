@@ -0,0 +1,213 @@
+package com.blogplatform.simpleblogplatform.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every query method of the repositories, captures the SQL it sends to H2 and checks
+ * the EXPLAIN plan of each statement: none may read a whole table (or a whole index
+ * without stopping early), except the few methods that are meant to read everything.
+ *
+ * The test also fails when a repository gains a query method that is not exercised here,
+ * so every new query gets its plan checked.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;DB_CLOSE_DELAY=-1",
+        // Every call must reach the database to show up in the statistics.
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@DirtiesContext
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTests {
+
+    // Methods whose job is to read every row; a full scan is the right plan for them.
+    private static final Set<String> FULL_SCAN_EXPECTED = Set.of(
+            "findAllTitles",        // loads the title suggester at startup
+            "streamArchive",        // the archive page lists every post
+            "streamAllForExport");  // NDJSON export of all posts and comments
+
+    // Matches the access-path comments in H2's plans, e.g. "/* PUBLIC.POST.tableScan */"
+    // or "/* PUBLIC.IDX_POST_CREATED_AT_ID: CREATED_AT < ?1 */".
+    private static final Pattern ACCESS_PATH = Pattern.compile("/\\* PUBLIC\\.([A-Z0-9_]+)(\\.tableScan)?(: [^*]+)? \\*/");
+
+    private static final Pattern DATA_STATEMENT = Pattern.compile("(?i)select|insert|update|delete");
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void insertData() {
+        // Enough rows that scanning a table is clearly more expensive than an index lookup.
+        jdbcTemplate.update("insert into users (username, password, role) values ('plan-user', 'x', 'USER')");
+        Long userId = jdbcTemplate.queryForObject("select id from users where username = 'plan-user'", Long.class);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> posts = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            posts.add(new Object[]{"Post " + i, "Content " + i, start.plusMinutes(i), i % 97, userId});
+        }
+        jdbcTemplate.batchUpdate("insert into post (title, content, created_at, view_count, comment_count, user_id) " +
+                "values (?, ?, ?, ?, 0, ?)", posts);
+        jdbcTemplate.update("insert into comment (id, content, created_at, post_id, user_id) " +
+                "select x, 'Comment', timestamp '2024-06-01 00:00:00', (x % 2000) + 1, ? " +
+                "from system_range(1, 10000)", userId);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void noRepositoryQueryScansAWholeTable() {
+        LocalDateTime cursor = LocalDateTime.of(2024, 1, 1, 12, 0);
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+        calls.put("findValidatorById", () -> postRepository.findValidatorById(1L));
+        calls.put("findNewest", () -> postRepository.findNewest(Limit.of(11)));
+        calls.put("findOlderThan", () -> postRepository.findOlderThan(cursor, 700L, Limit.of(11)));
+        calls.put("findNewerThan", () -> postRepository.findNewerThan(cursor, 700L, Limit.of(11)));
+        calls.put("findMostViewed", () -> postRepository.findMostViewed(Limit.of(10)));
+        calls.put("streamArchive", () -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<?> posts = postRepository.streamArchive()) {
+                posts.findFirst();
+            }
+        }));
+        calls.put("findNewestFeedEntries", () -> postRepository.findNewestFeedEntries(Limit.of(20)));
+        calls.put("findFeedEntryById", () -> postRepository.findFeedEntryById(1L));
+        calls.put("findMaxId", () -> postRepository.findMaxId());
+        calls.put("streamValidatorsForSitemap", () -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<?> posts = postRepository.streamValidatorsForSitemap(1000L, 1100L)) {
+                posts.findFirst();
+            }
+        }));
+        calls.put("findSummariesByIdIn", () -> postRepository.findSummariesByIdIn(List.of(1L, 2L, 3L)));
+        calls.put("findSearchDocumentsAfter", () -> postRepository.findSearchDocumentsAfter(1000L, Limit.of(100)));
+        calls.put("findSearchDocumentById", () -> postRepository.findSearchDocumentById(1L));
+        calls.put("findAllTitles", () -> postRepository.findAllTitles());
+        calls.put("findTitleById", () -> postRepository.findTitleById(1L));
+        calls.put("recordComment", () -> postRepository.recordComment(1L, cursor));
+        calls.put("recordComments", () -> postRepository.recordComments(1L, 2, cursor));
+        calls.put("recordCommentRemoved", () -> postRepository.recordCommentRemoved(1L, cursor));
+        calls.put("repairCommentCounts", () -> postRepository.repairCommentCounts());
+        calls.put("findPageByPostId", () -> commentRepository.findPageByPostId(1L, PageRequest.of(1, 20)));
+        calls.put("findByUsername", () -> userRepository.findByUsername("plan-user"));
+        // Both repositories have one; streams need an open transaction and are only run on use.
+        calls.put("streamAllForExport", () -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<?> posts = postRepository.streamAllForExport();
+                 Stream<?> comments = commentRepository.streamAllForExport()) {
+                posts.findFirst();
+                comments.findFirst();
+            }
+        }));
+
+        assertThat(calls.keySet()).as("repository query methods covered by this test")
+                .containsExactlyInAnyOrderElementsOf(declaredQueryMethods());
+
+        List<String> problems = new ArrayList<>();
+        calls.forEach((method, call) -> {
+            for (String sql : statementsRunBy(call)) {
+                String plan = explain(sql);
+                if (!FULL_SCAN_EXPECTED.contains(method) && scansWholeTable(plan)) {
+                    problems.add(method + " scans a whole table:\n" + sql + "\n" + plan);
+                }
+            }
+        });
+        assertThat(problems).isEmpty();
+    }
+
+    private static Set<String> declaredQueryMethods() {
+        return Stream.of(PostRepository.class, PostRepositoryCustom.class, CommentRepository.class,
+                        UserRepository.class, UserRepositoryCustom.class)
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .filter(method -> !method.isSynthetic() && !method.isDefault())
+                .map(Method::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Runs the call with H2's query statistics switched on and returns the distinct SQL
+     * statements it executed (with "?" placeholders).
+     */
+    private List<String> statementsRunBy(Runnable call) {
+        jdbcTemplate.execute("set query_statistics true");
+        try {
+            call.run();
+            return jdbcTemplate.queryForList(
+                            "select sql_statement from information_schema.query_statistics", String.class).stream()
+                    .filter(sql -> DATA_STATEMENT.matcher(sql).lookingAt())
+                    .toList();
+        } finally {
+            jdbcTemplate.execute("set query_statistics false");
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    /**
+     * A plan reads a whole table if it scans the table itself, or walks an index without
+     * any condition, unless it walks the index in the requested order ("index sorted")
+     * and stops after a fixed number of rows. Rows filtered by a condition the index
+     * could not use ("/* WHERE ...") do not count towards that number, so such a walk
+     * may still read the whole index. A "direct lookup" answers min/max/count from the
+     * end of an index (or the row count) without reading any rows.
+     */
+    static boolean scansWholeTable(String plan) {
+        boolean stopsEarly = plan.contains("/* index sorted */") && plan.contains("FETCH FIRST")
+                && !plan.contains("/* WHERE") || plan.contains("/* direct lookup */");
+        Matcher matcher = ACCESS_PATH.matcher(plan);
+        while (matcher.find()) {
+            boolean tableScan = matcher.group(2) != null;
+            boolean unconditionalIndexScan = matcher.group(3) == null;
+            if (tableScan || (unconditionalIndexScan && !stopsEarly)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,83 @@
+package com.blogplatform.simpleblogplatform.search;
+
+import com.blogplatform.simpleblogplatform.dto.PostSearchDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostSearchIndexTests {
+
+    // Nothing here rebuilds from or re-reads the database.
+    private final PostSearchIndex index = new PostSearchIndex(null);
+
+    @Test
+    void tokenizerDropsMarkupStopWordsAndSingleLetters() {
+        assertThat(Tokenizer.tokenize("<p>The <b>Kafka</b> consumer, in 2 parts: A-Z of it!</p>"))
+                .containsExactly("kafka", "consumer", "parts");
+        assertThat(Tokenizer.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void ranksTitleMatchesAndMoreMatchingTermsHigher() {
+        index.index(new PostSearchDocument(1L, "Gardening", "A note on kafka."));
+        index.index(new PostSearchDocument(2L, "Kafka in production", "Partitions and brokers."));
+        index.index(new PostSearchDocument(3L, "Kafka consumers", "Consumer groups and kafka offsets."));
+        index.index(new PostSearchDocument(4L, "Cooking", "Nothing about queues."));
+
+        assertThat(index.search("kafka", 0, 10).postIds()).containsExactly(3L, 2L, 1L);
+        assertThat(index.search("kafka partitions", 0, 10).postIds()).startsWith(2L);
+        assertThat(index.search("the", 0, 10).postIds()).isEmpty();
+    }
+
+    @Test
+    void replacedAndRemovedPostsLeaveTheResults() {
+        index.index(new PostSearchDocument(1L, "Kafka", "Streams."));
+        index.index(new PostSearchDocument(2L, "Kafka", "Streams."));
+
+        index.index(new PostSearchDocument(1L, "Postgres", "Tables."));
+        index.remove(2L);
+
+        assertThat(index.search("kafka", 0, 10).totalHits()).isZero();
+        assertThat(index.search("postgres", 0, 10).postIds()).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void pagesStopAtTheLastHit() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(new PostSearchDocument(id, "Kafka " + id, "Streams."));
+        }
+
+        SearchResults first = index.search("kafka", 0, 2);
+        SearchResults last = index.search("kafka", 2, 2);
+        assertThat(first.postIds()).hasSize(2);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.postIds()).hasSize(1).doesNotContainAnyElementsOf(first.postIds());
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.totalHits()).isEqualTo(5);
+
+        SearchResults pastTheEnd = index.search("kafka", 300_000_000, 10);
+        assertThat(pastTheEnd.postIds()).isEmpty();
+        assertThat(pastTheEnd.totalHits()).isEqualTo(5);
+        assertThat(index.search("kafka", Integer.MAX_VALUE, Integer.MAX_VALUE).postIds()).isEmpty();
+        assertThatThrownBy(() -> index.search("kafka", -1, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reindexingOnePostDoesNotGrowTheIndex() {
+        index.index(new PostSearchDocument(1L, "Kafka", "Streams."));
+        for (int save = 0; save < 1_000; save++) {
+            index.index(new PostSearchDocument(2L, "Postgres " + save, "Tables."));
+        }
+
+        assertThat(index.documentSlots()).isLessThan(100);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search("kafka", 0, 10).postIds()).containsExactly(1L);
+        assertThat(index.search("postgres", 0, 10).postIds()).containsExactly(2L);
+        assertThat(index.search("999", 0, 10).postIds()).containsExactly(2L);
+        assertThat(index.search("998", 0, 10).totalHits()).isZero();
+    }
+}
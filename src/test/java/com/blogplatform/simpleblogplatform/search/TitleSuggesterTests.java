@@ -0,0 +1,94 @@
+package com.blogplatform.simpleblogplatform.search;
+
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.service.PostService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:suggest;DB_CLOSE_DELAY=-1",
+        "blog.suggest.max-results=2"
+})
+@DirtiesContext
+class TitleSuggesterTests {
+
+    @Autowired
+    private TitleSuggester suggester;
+
+    @Autowired
+    private PostService postService;
+
+    @Test
+    void matchesWordPrefixesNewestFirst() throws Exception {
+        long oldest = createPost("Quarkus native images");
+        long middle = createPost("Tuning Quarkus startup");
+        long newest = createPost("Quartz scheduler pitfalls");
+        suggester.awaitUpdates(10, TimeUnit.SECONDS);
+
+        // Only the newest two of the three matches.
+        assertThat(ids("qua")).containsExactly(newest, middle);
+        assertThat(ids("quarku")).containsExactly(middle, oldest);
+        assertThat(ids("startup qua")).containsExactly(middle);
+        assertThat(ids("zebra")).isEmpty();
+    }
+
+    @Test
+    void keepsStopWordsAndShortWords() throws Exception {
+        long howTo = createPost("How to write a Xylophone tutorial");
+        long theX = createPost("The X factor of Xylophones");
+        suggester.awaitUpdates(10, TimeUnit.SECONDS);
+
+        assertThat(ids("how to")).containsExactly(howTo);
+        assertThat(ids("the x")).containsExactly(theX);
+        assertThat(ids("xylophone a")).containsExactly(howTo);
+    }
+
+    @Test
+    void earlierWordsMustMatchWholeTitleWords() throws Exception {
+        long banana = createPost("Banana split sundae");
+        long springfield = createPost("Springfield data archive");
+        long spring = createPost("Spring data repositories");
+        suggester.awaitUpdates(10, TimeUnit.SECONDS);
+
+        assertThat(ids("an sp")).isEmpty();
+        assertThat(ids("banana sp")).containsExactly(banana);
+        assertThat(ids("spring da")).containsExactly(spring);
+        assertThat(ids("springfield da")).containsExactly(springfield);
+    }
+
+    @Test
+    void followsSavesAndDeletes() throws Exception {
+        long id = createPost("Zymurgy for beginners");
+        suggester.awaitUpdates(10, TimeUnit.SECONDS);
+        assertThat(ids("zymu")).containsExactly(id);
+
+        Post post = postService.findPostById(id);
+        post.setTitle("Yeast for beginners");
+        postService.savePost(post);
+        suggester.awaitUpdates(10, TimeUnit.SECONDS);
+        assertThat(ids("zymu")).isEmpty();
+        assertThat(ids("yeas")).containsExactly(id);
+
+        postService.deletePostById(id);
+        suggester.awaitUpdates(10, TimeUnit.SECONDS);
+        assertThat(ids("yeas")).isEmpty();
+    }
+
+    private List<Long> ids(String prefix) {
+        return suggester.suggest(prefix).stream().map(TitleSuggester.Suggestion::id).toList();
+    }
+
+    private long createPost(String title) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent("Content of " + title);
+        return postService.savePost(post).getId();
+    }
+}
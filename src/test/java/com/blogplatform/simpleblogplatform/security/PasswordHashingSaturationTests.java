@@ -0,0 +1,77 @@
+package com.blogplatform.simpleblogplatform.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With the hashing pool's one thread and one queue slot taken, login and registration
+ * are refused with 503 and Retry-After rather than failing as a bad login or a 500,
+ * and both work again once the pool is free.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:password-saturation;DB_CLOSE_DELAY=-1",
+        "blog.password.threads=1",
+        "blog.password.queue-capacity=1"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class PasswordHashingSaturationTests {
+
+    // A well-formed BCrypt hash with cost 14: checking any password against it keeps the
+    // hashing thread busy for about a second or more.
+    private static final String SLOW_HASH = "$2a$14$" + "abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJKLMNOPQ";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void saturatedHashingAnswers503WithRetryAfter() throws Exception {
+        List<Thread> busy = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Thread thread = Thread.ofPlatform().start(() -> passwordEncoder.matches("guess", SLOW_HASH));
+            busy.add(thread);
+            // The caller parks in Future.get() once its task is running or queued.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+        }
+
+        mockMvc.perform(post("/login").param("username", "admin").param("password", "password").with(csrf()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        mockMvc.perform(post("/register").param("username", "saturated").param("password", "secret").with(csrf()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+        for (Thread thread : busy) {
+            thread.join();
+        }
+        mockMvc.perform(post("/login").param("username", "admin").param("password", "password").with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/"));
+        mockMvc.perform(post("/register").param("username", "saturated").param("password", "secret").with(csrf()))
+                .andExpect(redirectedUrl("/login?registered"));
+    }
+}
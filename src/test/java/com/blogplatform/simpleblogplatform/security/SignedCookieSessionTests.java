@@ -0,0 +1,168 @@
+package com.blogplatform.simpleblogplatform.security;
+
+import com.blogplatform.simpleblogplatform.model.Post;
+import com.blogplatform.simpleblogplatform.model.User;
+import com.blogplatform.simpleblogplatform.service.PostService;
+import com.blogplatform.simpleblogplatform.service.UserService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Logins kept in a signed cookie ("blog.session.mode=cookie") instead of the HttpSession:
+ * the cookie cannot be forged or used past its expiry, CSRF protection still applies, a
+ * renewed cookie carries the user's current role, and logging out removes it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cookie-sessions;DB_CLOSE_DELAY=-1",
+        "blog.session.mode=cookie",
+        "blog.session.signing-key=" + SignedCookieSessionTests.SIGNING_KEY,
+        "blog.session.max-age-seconds=1800"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class SignedCookieSessionTests {
+
+    static final String SIGNING_KEY = "AAECAwQFBgcICQoLDA0ODxAREhMUFRYXGBkaGxwdHh8=";
+
+    private static final Duration MAX_AGE = Duration.ofSeconds(1800);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PostService postService;
+
+    @Test
+    void loginIssuesACookieThatAuthenticatesLaterRequests() throws Exception {
+        register("cookie-login");
+
+        MvcResult login = mockMvc.perform(post("/login").with(csrf())
+                        .param("username", "cookie-login").param("password", "secret"))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+        Cookie cookie = login.getResponse().getCookie(SignedCookieSecurityContextRepository.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.isHttpOnly()).isTrue();
+        assertThat(login.getRequest().getSession(false)).isNull();
+
+        mockMvc.perform(get("/").cookie(cookie))
+                .andExpect(authenticated().withUsername("cookie-login").withRoles("USER"));
+    }
+
+    @Test
+    void tamperedCookieIsAnonymous() throws Exception {
+        String value = cookieIssuedAt(Instant.now(), "cookie-tampered", "ROLE_USER").getValue();
+        // Promote the user to admin without being able to sign the result.
+        Cookie tampered = new Cookie(SignedCookieSecurityContextRepository.COOKIE_NAME,
+                value.replace("ROLE_USER", "ROLE_ADMIN"));
+
+        mockMvc.perform(get("/").cookie(tampered))
+                .andExpect(unauthenticated());
+        mockMvc.perform(get("/admin/export").cookie(tampered))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    void expiredCookieIsRejected() throws Exception {
+        Cookie expired = cookieIssuedAt(Instant.now().minus(MAX_AGE).minusSeconds(1), "cookie-expired", "ROLE_ADMIN");
+
+        mockMvc.perform(get("/").cookie(expired))
+                .andExpect(unauthenticated());
+        mockMvc.perform(get("/admin/export").cookie(expired))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    void postWithoutCsrfTokenIsForbidden() throws Exception {
+        register("cookie-commenter");
+        Cookie cookie = cookieIssuedAt(Instant.now(), "cookie-commenter", "ROLE_USER");
+        long postId = createPost("Commented with a cookie login");
+
+        mockMvc.perform(post("/posts/{id}/comments", postId).cookie(cookie).param("content", "Forged"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/posts/{id}/comments", postId).cookie(cookie).with(csrf()).param("content", "Genuine"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    void renewalPicksUpARoleChange() throws Exception {
+        register("cookie-promoted");
+        // More than half of its lifetime has passed, so the next request renews it.
+        Cookie old = cookieIssuedAt(Instant.now().minus(MAX_AGE.dividedBy(2)).minusSeconds(60),
+                "cookie-promoted", "ROLE_USER");
+        userService.changeRole("cookie-promoted", "ADMIN");
+
+        // The renewing request itself already runs with the new role.
+        MvcResult renewed = mockMvc.perform(get("/admin/export").cookie(old))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        Cookie cookie = renewed.getResponse().getCookie(SignedCookieSecurityContextRepository.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        mockMvc.perform(get("/").cookie(cookie))
+                .andExpect(authenticated().withUsername("cookie-promoted").withRoles("ADMIN"));
+    }
+
+    @Test
+    void logoutClearsTheCookie() throws Exception {
+        register("cookie-logout");
+        Cookie cookie = cookieIssuedAt(Instant.now(), "cookie-logout", "ROLE_USER");
+
+        MvcResult logout = mockMvc.perform(post("/logout").cookie(cookie).with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+
+        Cookie cleared = logout.getResponse().getCookie(SignedCookieSecurityContextRepository.COOKIE_NAME);
+        assertThat(cleared).isNotNull();
+        assertThat(cleared.getValue()).isEmpty();
+        assertThat(cleared.getMaxAge()).isZero();
+    }
+
+    /**
+     * Signs a cookie with the application's key, as if it had been issued at the given time.
+     */
+    private static Cookie cookieIssuedAt(Instant issuedAt, String username, String role) {
+        SignedCookieSecurityContextRepository issuer = new SignedCookieSecurityContextRepository(
+                Base64.getDecoder().decode(SIGNING_KEY), MAX_AGE, Clock.fixed(issuedAt, ZoneOffset.UTC));
+        return new Cookie(SignedCookieSecurityContextRepository.COOKIE_NAME,
+                issuer.issue(username, AuthorityUtils.createAuthorityList(role)));
+    }
+
+    private void register(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        userService.registerUser(user);
+    }
+
+    private long createPost(String title) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent("Content of " + title);
+        return postService.savePost(post).getId();
+    }
+}
@@ -0,0 +1,90 @@
+package com.blogplatform.simpleblogplatform.service;
+
+import com.blogplatform.simpleblogplatform.dto.CommentDto;
+import com.blogplatform.simpleblogplatform.model.Post;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The stored comment count follows added and deleted comments, and the repair puts a
+ * count that drifted (rows changed outside the application) right again, with a new
+ * version so the post's ETag changes too.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:comment-count;DB_CLOSE_DELAY=-1")
+@DirtiesContext
+class CommentCountTests {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void addingAndDeletingCommentsKeepsTheCount() {
+        long id = createPost("Counted");
+        addComment(id, "First");
+        addComment(id, "Second");
+        addComment(id, "Third");
+        assertThat(storedCount(id)).isEqualTo(3);
+        assertThat(postService.findPostById(id).getCommentCount()).isEqualTo(3);
+
+        Long commentId = jdbcTemplate.queryForObject(
+                "select min(id) from comment where post_id = ?", Long.class, id);
+        commentService.deleteComment(commentId);
+        assertThat(storedCount(id)).isEqualTo(2);
+        assertThat(postService.findPostById(id).getCommentCount()).isEqualTo(2);
+    }
+
+    @Test
+    void repairFixesDriftedCountsAndBumpsTheVersion() {
+        long drifted = createPost("Drifted");
+        long correct = createPost("Correct");
+        addComment(drifted, "Kept");
+        addComment(drifted, "Deleted behind our back");
+        addComment(correct, "Fine");
+        // A post in a later ID range than the others, so the repair covers several ranges.
+        jdbcTemplate.update("insert into post (id, title, comment_count, view_count, version) values (?, 'Far', 5, 0, 0)",
+                correct + 2500);
+        long far = correct + 2500;
+
+        jdbcTemplate.update("delete from comment where content = 'Deleted behind our back'");
+        long version = postService.findPostById(drifted).getVersion();
+
+        assertThat(commentService.repairCommentCounts()).isEqualTo(2);
+        assertThat(storedCount(drifted)).isEqualTo(1);
+        assertThat(storedCount(correct)).isEqualTo(1);
+        assertThat(storedCount(far)).isZero();
+        Post repaired = postService.findPostById(drifted);
+        assertThat(repaired.getCommentCount()).isEqualTo(1);
+        assertThat(repaired.getVersion()).isEqualTo(version + 1);
+
+        assertThat(commentService.repairCommentCounts()).isZero();
+    }
+
+    private long createPost(String title) {
+        jdbcTemplate.update("merge into users (username, password, role) key (username) values ('counter', 'x', 'USER')");
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent("Content of " + title);
+        return postService.savePost(post).getId();
+    }
+
+    private void addComment(long postId, String content) {
+        CommentDto comment = new CommentDto();
+        comment.setContent(content);
+        commentService.saveComment(postId, "counter", comment);
+    }
+
+    private long storedCount(long postId) {
+        return jdbcTemplate.queryForObject("select comment_count from post where id = ?", Long.class, postId);
+    }
+}
@@ -0,0 +1,116 @@
+package com.blogplatform.simpleblogplatform.service;
+
+import com.blogplatform.simpleblogplatform.dto.PendingComment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The async writer keeps acknowledged comments through temporary database failures and
+ * drops only those that can never be written.
+ */
+class CommentIngestionServiceTests {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final FlakyCommentService commentService = new FlakyCommentService();
+    private final CommentIngestionService ingestion =
+            new CommentIngestionService(commentService, meters, "async", 100, 10, 1);
+
+    @AfterEach
+    void stop() {
+        ingestion.stop();
+    }
+
+    @Test
+    void temporaryFailuresAreRetried() throws Exception {
+        commentService.failures.add(new CannotCreateTransactionException("Connection pool exhausted"));
+        commentService.failures.add(new QueryTimeoutException("Timed out"));
+        ingestion.start();
+
+        ingestion.enqueue(comment(1L));
+        ingestion.enqueue(comment(2L));
+
+        assertThat(ingestion.awaitEmpty(Duration.ofSeconds(10))).isTrue();
+        assertThat(commentService.savedPostIds()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(meters.get("blog.comments.retries").counter().count()).isEqualTo(2);
+        assertThat(meters.get("blog.comments.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    void onlyCommentsThatCanNeverBeWrittenAreDropped() throws Exception {
+        commentService.deletedPostId = 2L;
+        ingestion.start();
+
+        ingestion.enqueue(comment(1L));
+        ingestion.enqueue(comment(2L));
+        ingestion.enqueue(comment(3L));
+
+        assertThat(ingestion.awaitEmpty(Duration.ofSeconds(10))).isTrue();
+        assertThat(commentService.savedPostIds()).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(meters.get("blog.comments.dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void writerSurvivesAnError() throws Exception {
+        commentService.failures.add(new StackOverflowError());
+        ingestion.start();
+
+        ingestion.enqueue(comment(1L));
+        assertThat(ingestion.awaitEmpty(Duration.ofSeconds(10))).isTrue();
+        ingestion.enqueue(comment(2L));
+
+        assertThat(ingestion.awaitEmpty(Duration.ofSeconds(10))).isTrue();
+        assertThat(commentService.savedPostIds()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    private static PendingComment comment(Long postId) {
+        return new PendingComment(postId, 1L, "Comment on " + postId, LocalDateTime.now());
+    }
+
+    /**
+     * Throws the queued failures one per call, and rejects batches with a comment on
+     * a deleted post the way the foreign key would.
+     */
+    private static class FlakyCommentService extends CommentService {
+
+        final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        final List<PendingComment> saved = Collections.synchronizedList(new ArrayList<>());
+        volatile Long deletedPostId;
+
+        FlakyCommentService() {
+            super(null, null, null, null, 20);
+        }
+
+        @Override
+        public void saveComments(List<PendingComment> comments) {
+            Throwable failure = failures.poll();
+            if (failure instanceof RuntimeException e) {
+                throw e;
+            }
+            if (failure instanceof Error e) {
+                throw e;
+            }
+            if (comments.stream().anyMatch(comment -> comment.postId().equals(deletedPostId))) {
+                throw new DataIntegrityViolationException("Referential integrity constraint violation");
+            }
+            saved.addAll(comments);
+        }
+
+        List<Long> savedPostIds() {
+            return saved.stream().map(PendingComment::postId).toList();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.blogplatform.simpleblogplatform.service;
+
+import com.blogplatform.simpleblogplatform.model.User;
+import com.blogplatform.simpleblogplatform.security.TtlUserCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CustomUserDetailsServiceTests {
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TtlUserCache userCache;
+
+    @Test
+    void roleChangeIsVisibleToTheNextAuthentication() {
+        User user = new User();
+        user.setUsername("role-change");
+        user.setPassword("secret");
+        userService.registerUser(user);
+
+        // The first load caches the user; the second must come from the cache.
+        assertThat(authoritiesOf(userDetailsService.loadUserByUsername("role-change"))).containsExactly("ROLE_USER");
+        assertThat(userCache.getUserFromCache("role-change")).isNotNull();
+
+        userService.changeRole("role-change", "ADMIN");
+
+        assertThat(userCache.getUserFromCache("role-change")).isNull();
+        assertThat(authoritiesOf(userDetailsService.loadUserByUsername("role-change"))).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void passwordChangeIsVisibleToTheNextAuthentication() {
+        User user = new User();
+        user.setUsername("password-change");
+        user.setPassword("old-secret");
+        userService.registerUser(user);
+        String oldHash = userDetailsService.loadUserByUsername("password-change").getPassword();
+
+        userService.changePassword("password-change", "new-secret");
+
+        assertThat(userDetailsService.loadUserByUsername("password-change").getPassword()).isNotEqualTo(oldHash);
+    }
+
+    @Test
+    void loadThatStartedBeforeAnUpdateIsNotCached() {
+        User user = new User();
+        user.setUsername("racing-login");
+        user.setPassword("secret");
+        userService.registerUser(user);
+
+        // A login reads the user (still "USER") just before an admin changes the role...
+        long stamp = userCache.stamp();
+        UserDetails staleRead = org.springframework.security.core.userdetails.User.withUsername("racing-login")
+                .password("hash").roles("USER").build();
+        userService.changeRole("racing-login", "ADMIN");
+
+        // ...and tries to cache what it read after the change was committed.
+        userCache.putUserInCache(staleRead, stamp);
+
+        assertThat(userCache.getUserFromCache("racing-login")).isNull();
+        assertThat(authoritiesOf(userDetailsService.loadUserByUsername("racing-login"))).containsExactly("ROLE_ADMIN");
+    }
+
+    private static Set<String> authoritiesOf(UserDetails user) {
+        return user.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+    }
+}
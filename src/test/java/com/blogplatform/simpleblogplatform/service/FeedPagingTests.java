@@ -0,0 +1,83 @@
+package com.blogplatform.simpleblogplatform.service;
+
+import com.blogplatform.simpleblogplatform.dto.FeedCursor;
+import com.blogplatform.simpleblogplatform.dto.PostFeedPage;
+import com.blogplatform.simpleblogplatform.dto.PostSummary;
+import com.blogplatform.simpleblogplatform.model.Post;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset paging of the home feed when all posts share one creation time, so every page
+ * boundary is decided by the id tie-breaker alone.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:feed-paging;DB_CLOSE_DELAY=-1",
+        "blog.feed.page-size=2"
+})
+@DirtiesContext
+class FeedPagingTests {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pagesThroughPostsCreatedAtTheSameInstant() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Post post = new Post();
+            post.setTitle("Same instant " + i);
+            post.setContent("Post " + i);
+            ids.add(postService.savePost(post).getId());
+        }
+        jdbcTemplate.update("update post set created_at = ?", LocalDateTime.of(2024, 5, 1, 10, 15, 30));
+
+        // Newest first means highest id first.
+        PostFeedPage first = postService.findFeedPage(null, null);
+        assertThat(idsOf(first)).containsExactly(ids.get(6), ids.get(5));
+        assertThat(first.hasNewer()).isFalse();
+
+        PostFeedPage second = postService.findFeedPage(first.olderCursor(), null);
+        assertThat(idsOf(second)).containsExactly(ids.get(4), ids.get(3));
+        PostFeedPage third = postService.findFeedPage(second.olderCursor(), null);
+        assertThat(idsOf(third)).containsExactly(ids.get(2), ids.get(1));
+        PostFeedPage last = postService.findFeedPage(third.olderCursor(), null);
+        assertThat(idsOf(last)).containsExactly(ids.get(0));
+        assertThat(last.hasOlder()).isFalse();
+        assertThat(last.hasNewer()).isTrue();
+
+        // Going back from the third page shows the second one again, with the same cursors.
+        PostFeedPage backToSecond = postService.findFeedPage(null, third.newerCursor());
+        assertThat(idsOf(backToSecond)).isEqualTo(idsOf(second));
+        assertThat(backToSecond.etag()).isEqualTo(second.etag());
+
+        // Only one page's worth of newer posts is left: the full first page is shown instead.
+        PostFeedPage backToFirst = postService.findFeedPage(null, second.newerCursor());
+        assertThat(idsOf(backToFirst)).isEqualTo(idsOf(first));
+        assertThat(backToFirst.hasNewer()).isFalse();
+
+        // Round trip through the query parameter form, and tampered cursors.
+        assertThat(FeedCursor.parse(second.olderCursor().encode())).isEqualTo(second.olderCursor());
+        for (String malformed : List.of("garbage", "2024-05-01T10:15:30_", "_42", "2024-13-01T10:15:30_42",
+                "2024-05-01T10:15:30_x")) {
+            PostFeedPage page = postService.findFeedPage(FeedCursor.parse(malformed), FeedCursor.parse(malformed));
+            assertThat(page.etag()).as(malformed).isEqualTo(first.etag());
+        }
+    }
+
+    private static List<Long> idsOf(PostFeedPage page) {
+        return page.posts().stream().map(PostSummary::id).toList();
+    }
+}
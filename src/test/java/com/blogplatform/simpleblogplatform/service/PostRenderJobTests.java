@@ -0,0 +1,71 @@
+package com.blogplatform.simpleblogplatform.service;
+
+import com.blogplatform.simpleblogplatform.event.PostChangedEvent;
+import com.blogplatform.simpleblogplatform.event.PostsRenderedEvent;
+import com.blogplatform.simpleblogplatform.render.PostContentRenderer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Posts stored before the current rendering rules (here: inserted with render_version 0,
+ * as migration V4 leaves existing posts) are re-rendered by the job, and cached copies
+ * of them are replaced.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:render-job;DB_CLOSE_DELAY=-1",
+        "blog.render.threads=3",
+        "blog.render.batch-size=4"
+})
+@DirtiesContext
+@RecordApplicationEvents
+class PostRenderJobTests {
+
+    @Autowired
+    private PostRenderJob renderJob;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void rendersEveryStalePostOnce() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            jdbcTemplate.update("insert into post (title, content, comment_count, view_count, version) " +
+                    "values (?, ?, 0, 0, 0)", "Stale " + i, "Post **number** " + i + " <script>x()</script>");
+        }
+        Long firstId = jdbcTemplate.queryForObject("select min(id) from post where title = 'Stale 0'", Long.class);
+        // Puts the unrendered post into the second-level cache.
+        assertThat(postService.findPostById(firstId).getContentHtml()).isNull();
+
+        assertThat(renderJob.renderStalePosts()).isEqualTo(10);
+        // One event for the whole job, none per post.
+        assertThat(events.stream(PostsRenderedEvent.class)).containsExactly(new PostsRenderedEvent(10));
+        assertThat(events.stream(PostChangedEvent.class)).isEmpty();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "select content_html, excerpt, word_count, render_version, version from post where id = ?", firstId);
+        assertThat(row).containsEntry("CONTENT_HTML", "<p>Post <strong>number</strong> 0 </p>\n")
+                .containsEntry("EXCERPT", "Post number 0")
+                .containsEntry("WORD_COUNT", 3)
+                .containsEntry("RENDER_VERSION", PostContentRenderer.RULES_VERSION)
+                .containsEntry("VERSION", 1L);
+        assertThat(postService.findPostById(firstId).getContentHtml()).isEqualTo(row.get("CONTENT_HTML"));
+
+        assertThat(renderJob.renderStalePosts()).isZero();
+        assertThat(events.stream(PostsRenderedEvent.class)).hasSize(1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.blogplatform.simpleblogplatform.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The batched flush writes exactly the views counted since the previous one, views of
+ * posts beyond "max-pending-posts" are dropped and counted, a failed flush is retried,
+ * and closing the application context flushes what is still pending.
+ */
+class ViewCounterServiceTests {
+
+    private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+    private final MeterRegistry meters = new SimpleMeterRegistry();
+
+    @Test
+    void flushAddsExactlyThePendingViews() {
+        ViewCounterService service = new ViewCounterService(jdbcTemplate, meters, 100);
+        for (int i = 0; i < 5; i++) {
+            service.recordView(2L);
+        }
+        service.recordView(1L);
+
+        service.flush();
+        assertThat(jdbcTemplate.flushes).containsExactly(Map.of(1L, 1L, 2L, 5L));
+        assertThat(meters.get("blog.views.flushed").counter().count()).isEqualTo(6);
+
+        // Nothing new: no statement at all. Then only the new view.
+        service.flush();
+        service.recordView(2L);
+        service.flush();
+        assertThat(jdbcTemplate.flushes).containsExactly(Map.of(1L, 1L, 2L, 5L), Map.of(2L, 1L));
+    }
+
+    @Test
+    void dropsViewsOfPostsBeyondTheLimit() {
+        ViewCounterService service = new ViewCounterService(jdbcTemplate, meters, 2);
+        service.recordView(1L);
+        service.recordView(2L);
+        service.recordView(3L);
+        service.recordView(3L);
+        // Posts already pending keep counting.
+        service.recordView(1L);
+
+        assertThat(meters.get("blog.views.dropped").counter().count()).isEqualTo(2);
+        assertThat(meters.get("blog.views.pending").gauge().value()).isEqualTo(2);
+        service.flush();
+        assertThat(jdbcTemplate.flushes).containsExactly(Map.of(1L, 2L, 2L, 1L));
+    }
+
+    @Test
+    void failedFlushIsRetriedWithTheNextOne() {
+        ViewCounterService service = new ViewCounterService(jdbcTemplate, meters, 100);
+        service.recordView(1L);
+        jdbcTemplate.failNext = true;
+        service.flush();
+        service.recordView(1L);
+        service.flush();
+
+        assertThat(jdbcTemplate.flushes).containsExactly(Map.of(1L, 2L));
+        assertThat(meters.get("blog.views.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    void closingTheContextFlushesPendingViews() {
+        ViewCounterService service;
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(ViewCounterService.class,
+                    () -> new ViewCounterService(jdbcTemplate, meters, 100));
+            context.refresh();
+            service = context.getBean(ViewCounterService.class);
+            service.recordView(7L);
+            service.recordView(7L);
+            assertThat(jdbcTemplate.flushes).isEmpty();
+        }
+        assertThat(jdbcTemplate.flushes).containsExactly(Map.of(7L, 2L));
+    }
+
+    /**
+     * Records the view-count batches instead of running them.
+     */
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+
+        final List<Map<Long, Long>> flushes = new ArrayList<>();
+        boolean failNext;
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("Database unavailable");
+            }
+            Map<Long, Long> deltas = new TreeMap<>();
+            for (Object[] args : batchArgs) {
+                deltas.put((Long) args[1], (Long) args[0]);
+            }
+            flushes.add(deltas);
+            return new int[batchArgs.size()];
+        }
+    }
+}